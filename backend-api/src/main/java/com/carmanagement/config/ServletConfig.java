@@ -14,7 +14,7 @@ public class ServletConfig {
     
     /**
      * Register FuelStatsServlet programmatically
-     * Maps servlet to /servlet/fuel-stats URL pattern
+     * Maps servlet to /servlet/fuel-stats URL pattern with async support enabled
      * 
      * @param fuelStatsServlet Autowired servlet instance
      * @return ServletRegistrationBean for the fuel stats servlet
@@ -28,6 +28,7 @@ public class ServletConfig {
         
         registration.setName("FuelStatsServlet");
         registration.setLoadOnStartup(1);
+        registration.setAsyncSupported(true);
         
         return registration;
     }
@@ -0,0 +1,112 @@
+package com.carmanagement.config;
+
+import com.carmanagement.persistence.FsyncPolicy;
+import com.carmanagement.repository.ColumnarFuelEntryStore;
+import com.carmanagement.repository.FuelEntryStore;
+import com.carmanagement.repository.HeapFuelEntryStore;
+import com.carmanagement.repository.MappedFuelEntryStore;
+import com.carmanagement.repository.ShardedFuelEntryStore;
+import com.carmanagement.service.CarWriteLocks;
+import com.carmanagement.service.PerCarWriteLocks;
+import com.carmanagement.service.ShardedWriteExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Configuration class for fuel entry storage
+ * Selects the FuelEntryStore backend and the matching CarWriteLocks from the
+ * fuel.storage.mode property
+ */
+@Configuration
+public class StorageConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StorageConfig.class);
+    
+    /**
+     * Create the fuel entry store
+     * heap     - FuelEntry objects indexed per car (default)
+     * columnar - per-car primitive arrays, entries materialized on read
+     * mapped   - fixed-width records in memory-mapped segment files, survives restarts;
+     *            requires persistence.enabled so cars survive with their entries
+     * sharded  - experimental: heap stores partitioned by car ID, each with its own ID range;
+     *            every write waits on a hand-off to the shard's writer thread, which made it
+     *            about ten times slower than heap in ShardScalingBenchmark on one core
+     *            (about 24k against 242k writes/s)
+     * 
+     * @param mode Value of fuel.storage.mode
+     * @param mappedDirectory Segment directory for the mapped store
+     * @param mappedSegmentRecords Records per segment file for the mapped store
+     * @param shards Value of fuel.storage.shards
+     * @param persistenceEnabled Value of persistence.enabled
+     * @param fsyncPolicy Value of persistence.fsync-policy, also applied to the mapped segments
+     * @param fsyncIntervalMs Value of persistence.fsync-interval-ms
+     * @return FuelEntryStore implementation
+     * @throws IOException if the mapped store cannot be opened
+     * @throws IllegalStateException if mapped mode is selected without durable mode
+     */
+    @Bean
+    public FuelEntryStore fuelEntryStore(
+            @Value("${fuel.storage.mode:heap}") String mode,
+            @Value("${fuel.storage.mapped.directory:data/fuel}") String mappedDirectory,
+            @Value("${fuel.storage.mapped.segment-records:1048576}") int mappedSegmentRecords,
+            @Value("${fuel.storage.shards:0}") int shards,
+            @Value("${persistence.enabled:false}") boolean persistenceEnabled,
+            @Value("${persistence.fsync-policy:interval}") String fsyncPolicy,
+            @Value("${persistence.fsync-interval-ms:100}") long fsyncIntervalMs) throws IOException {
+        logger.info("Using fuel entry storage mode: {}", mode);
+        switch (mode.trim().toLowerCase(Locale.ROOT)) {
+            case "heap":
+                return new HeapFuelEntryStore();
+            case "columnar":
+                return new ColumnarFuelEntryStore();
+            case "mapped":
+                // Without durable mode car IDs restart at 1 and new cars would inherit stored entries
+                if (!persistenceEnabled) {
+                    throw new IllegalStateException(
+                        "fuel.storage.mode=mapped requires persistence.enabled=true");
+                }
+                return new MappedFuelEntryStore(Paths.get(mappedDirectory), mappedSegmentRecords,
+                    FsyncPolicy.valueOf(fsyncPolicy.trim().toUpperCase(Locale.ROOT)), fsyncIntervalMs);
+            case "sharded":
+                logger.warn("fuel.storage.mode=sharded is experimental: each write waits on a hand-off "
+                    + "to a shard writer thread and is usually slower than heap");
+                logger.info("Using {} storage shards", shardCount(shards));
+                return new ShardedFuelEntryStore(shardCount(shards));
+            default:
+                throw new IllegalArgumentException("Unknown fuel.storage.mode: " + mode);
+        }
+    }
+    
+    /**
+     * Create the per-car write serialization
+     * sharded  - one single-writer executor per storage shard
+     * others   - a lock per car, held by the writing request thread
+     * 
+     * @param mode Value of fuel.storage.mode
+     * @param shards Value of fuel.storage.shards
+     * @return CarWriteLocks implementation
+     */
+    @Bean
+    public CarWriteLocks carWriteLocks(
+            @Value("${fuel.storage.mode:heap}") String mode,
+            @Value("${fuel.storage.shards:0}") int shards) {
+        if (mode.trim().equalsIgnoreCase("sharded")) {
+            return new ShardedWriteExecutors(shardCount(shards));
+        }
+        return new PerCarWriteLocks();
+    }
+    
+    /**
+     * Number of shards, defaulting to one per CPU core
+     */
+    private static int shardCount(int shards) {
+        return shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+    }
+}
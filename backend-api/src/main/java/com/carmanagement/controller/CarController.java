@@ -1,12 +1,19 @@
 package com.carmanagement.controller;
 
 import com.carmanagement.dto.CarRequest;
+import com.carmanagement.dto.CarSummary;
+import com.carmanagement.dto.ConsumptionSeries;
+import com.carmanagement.dto.CursorPagination;
+import com.carmanagement.dto.FuelBatchResult;
 import com.carmanagement.dto.FuelEntryRequest;
+import com.carmanagement.dto.FuelRollupReport;
 import com.carmanagement.dto.FuelStats;
+import com.carmanagement.dto.LeaderboardEntry;
 import com.carmanagement.model.Car;
 import com.carmanagement.model.FuelEntry;
 import com.carmanagement.service.CarService;
 import com.carmanagement.service.FuelService;
+import com.carmanagement.util.ETags;
 import com.carmanagement.util.ResponseHandler;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -21,7 +28,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST Controller for Car Management
@@ -33,6 +43,8 @@ import java.util.List;
 public class CarController {
     
     private static final Logger logger = LoggerFactory.getLogger(CarController.class);
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 10000;
     
     private final CarService carService;
     private final FuelService fuelService;
@@ -67,35 +79,151 @@ public class CarController {
     
     /**
      * GET /api/cars
-     * Retrieve all cars
+     * GET /api/cars?after={id}&limit={n}&view=summary|full
+     * Retrieve all cars, or one page of cars ordered by ID (keyset pagination)
+     * as soon as any paging parameter is given
      */
-    @Operation(summary = "Get all cars", description = "Retrieve a list of all registered vehicles")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved list")
+    @Operation(summary = "Get all cars",
+        description = "Without parameters, retrieve every registered vehicle with its fuel entries. With after, limit or view, retrieve a page instead; pass pagination.nextCursor as 'after' to get the next page")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved list"),
+        @ApiResponse(responseCode = "400", description = "Invalid pagination parameters")
+    })
     @GetMapping
-    public ResponseEntity<com.carmanagement.dto.ApiResponse<List<Car>>> getAllCars() {
-        logger.info("GET /api/cars - Retrieving all cars");
+    public ResponseEntity<com.carmanagement.dto.ApiResponse<Object>> getAllCars(
+            @Parameter(description = "Return cars with an ID greater than this cursor") 
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of cars per page (1-" + MAX_PAGE_SIZE + "), 50 when paging") 
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "summary (without fuel entries, the default when paging) or full") 
+            @RequestParam(required = false) String view) {
+        if (after == null && limit == null && view == null) {
+            logger.info("GET /api/cars - Retrieving all cars");
+            
+            List<Car> cars = carService.getAllCars();
+            
+            return com.carmanagement.util.ResponseHandler.success(cars);
+        }
+        
+        int pageSize = limit != null ? limit : 50;
+        String pageView = view != null ? view : "summary";
+        logger.info("GET /api/cars - Retrieving cars after {} (limit {}, view {})", after, pageSize, pageView);
+        
+        if (pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit cannot exceed " + MAX_PAGE_SIZE + ", got: " + pageSize);
+        }
+        boolean full = "full".equalsIgnoreCase(pageView);
+        if (!full && !"summary".equalsIgnoreCase(pageView)) {
+            throw new IllegalArgumentException("view must be 'summary' or 'full', got: " + pageView);
+        }
+        
+        List<Car> cars = carService.getCarsPage(after, pageSize);
+        
+        return com.carmanagement.util.ResponseHandler.success(toPage(cars, pageSize, full), "Success", HttpStatus.OK);
+    }
+    
+    /**
+     * GET /api/cars/leaderboard?order=best|worst&limit={n}
+     * Get the most or least fuel-efficient cars
+     */
+    @Operation(summary = "Get fuel-efficiency leaderboard",
+        description = "Cars ranked by average consumption in L/100km: 'best' lists the lowest first, 'worst' the highest. Cars with fewer than two fuel entries are not ranked")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved leaderboard"),
+        @ApiResponse(responseCode = "400", description = "Invalid order or limit")
+    })
+    @GetMapping("/leaderboard")
+    public ResponseEntity<com.carmanagement.dto.ApiResponse<List<LeaderboardEntry>>> getLeaderboard(
+            @Parameter(description = "best or worst") @RequestParam(defaultValue = "best") String order,
+            @Parameter(description = "Maximum number of cars (1-" + MAX_PAGE_SIZE + ")") 
+            @RequestParam(defaultValue = "10") int limit) {
+        logger.info("GET /api/cars/leaderboard - order: {}, limit: {}", order, limit);
         
-        List<Car> cars = carService.getAllCars();
+        if (limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit cannot exceed " + MAX_PAGE_SIZE + ", got: " + limit);
+        }
         
-        return com.carmanagement.util.ResponseHandler.success(cars);
+        return com.carmanagement.util.ResponseHandler.success(fuelService.getLeaderboard(order, limit));
+    }
+    
+    /**
+     * GET /api/cars/search?brand=&modelPrefix=&yearFrom=&yearTo=&after={id}&limit={n}
+     * Search cars through the repository's brand, model and year indexes
+     */
+    @Operation(summary = "Search cars",
+        description = "Find cars by brand (case-insensitive), model prefix (case-insensitive) and year range. Results are ordered by ID; pass pagination.nextCursor as 'after' to get the next page")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully searched cars"),
+        @ApiResponse(responseCode = "400", description = "Invalid filters or pagination parameters")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<com.carmanagement.dto.ApiResponse<Object>> searchCars(
+            @Parameter(description = "Brand, case-insensitive") @RequestParam(required = false) String brand,
+            @Parameter(description = "Model prefix, case-insensitive") @RequestParam(required = false) String modelPrefix,
+            @Parameter(description = "Lowest manufacturing year") @RequestParam(required = false) Integer yearFrom,
+            @Parameter(description = "Highest manufacturing year") @RequestParam(required = false) Integer yearTo,
+            @Parameter(description = "Return cars with an ID greater than this cursor") 
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of cars per page (1-" + MAX_PAGE_SIZE + ")") 
+            @RequestParam(defaultValue = "50") int limit,
+            @Parameter(description = "summary (without fuel entries) or full") 
+            @RequestParam(defaultValue = "summary") String view) {
+        logger.info("GET /api/cars/search - brand: {}, modelPrefix: {}, years: {}-{}, after: {} (limit {})",
+            brand, modelPrefix, yearFrom, yearTo, after, limit);
+        
+        if (limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit cannot exceed " + MAX_PAGE_SIZE + ", got: " + limit);
+        }
+        boolean full = "full".equalsIgnoreCase(view);
+        if (!full && !"summary".equalsIgnoreCase(view)) {
+            throw new IllegalArgumentException("view must be 'summary' or 'full', got: " + view);
+        }
+        
+        List<Car> cars = carService.searchCars(brand, modelPrefix, yearFrom, yearTo, after, limit);
+        
+        return com.carmanagement.util.ResponseHandler.success(toPage(cars, limit, full), "Success", HttpStatus.OK);
+    }
+    
+    /**
+     * Build a paginated response body from a page of cars with one look-ahead car
+     */
+    private static Map<String, Object> toPage(List<Car> cars, int limit, boolean full) {
+        boolean hasMore = cars.size() > limit;
+        if (hasMore) {
+            cars = cars.subList(0, limit);
+        }
+        Long nextCursor = hasMore ? cars.get(cars.size() - 1).getId() : null;
+        
+        Map<String, Object> page = new HashMap<>();
+        page.put("data", full ? cars : cars.stream().map(CarSummary::from).toList());
+        page.put("pagination", new CursorPagination(limit, nextCursor, hasMore));
+        return page;
     }
     
     /**
      * GET /api/cars/{id}
      * Retrieve a specific car by ID
+     * Answers 304 Not Modified when If-None-Match holds the car's current ETag
      */
     @Operation(summary = "Get car by ID", description = "Retrieve details of a specific car")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Found the car"),
+        @ApiResponse(responseCode = "304", description = "Car unchanged since the given ETag"),
         @ApiResponse(responseCode = "404", description = "Car not found")
     })
     @GetMapping("/{id}")
     public ResponseEntity<com.carmanagement.dto.ApiResponse<Car>> getCarById(
-            @Parameter(description = "ID of the car to be retrieved") @PathVariable Long id) {
+            @Parameter(description = "ID of the car to be retrieved") @PathVariable Long id,
+            WebRequest webRequest) {
         logger.info("GET /api/cars/{} - Retrieving car", id);
         
         Car car = carService.getCarById(id);
         
+        // Skip serialization when the client's copy is current
+        if (webRequest.checkNotModified(ETags.forCar(id, fuelService.getVersion(id)))) {
+            return null;
+        }
+        
         return com.carmanagement.util.ResponseHandler.success(car);
     }
     
@@ -123,22 +251,117 @@ public class CarController {
         );
     }
     
+    /**
+     * POST /api/cars/{id}/fuel/batch
+     * Add an ordered batch of fuel entries to a car
+     */
+    @Operation(summary = "Add fuel entries in batch",
+        description = "Record several fueling events for a car in odometer order, with a result per item")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results"),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized batch"),
+        @ApiResponse(responseCode = "404", description = "Car not found")
+    })
+    @PostMapping("/{id}/fuel/batch")
+    public ResponseEntity<com.carmanagement.dto.ApiResponse<FuelBatchResult>> addFuelEntries(
+            @Parameter(description = "ID of the car") @PathVariable Long id,
+            @RequestBody List<FuelEntryRequest> requests) {
+        logger.info("POST /api/cars/{}/fuel/batch - Adding {} fuel entries", id, requests.size());
+        
+        if (requests.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one fuel entry");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                "Batch cannot contain more than " + MAX_BATCH_SIZE + " fuel entries, got: " + requests.size());
+        }
+        
+        FuelBatchResult result = fuelService.addFuelEntries(id, requests);
+        
+        return com.carmanagement.util.ResponseHandler.success(
+            result,
+            String.format("Fuel batch processed: %d accepted, %d rejected", result.getAccepted(), result.getRejected()),
+            HttpStatus.OK
+        );
+    }
+    
     /**
      * GET /api/cars/{id}/fuel/stats
-     * Get fuel statistics for a car
+     * Get fuel statistics for a car, optionally over a window of its history
+     * selected with from/to by odometer reading or by time
+     * Answers 304 Not Modified when If-None-Match holds the current ETag
      */
-    @Operation(summary = "Get fuel statistics", description = "Calculate fuel consumption statistics for a car")
+    @Operation(summary = "Get fuel statistics", description = "Calculate fuel consumption statistics for a car, optionally within an inclusive odometer or time window")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved statistics"),
+        @ApiResponse(responseCode = "400", description = "Invalid window"),
+        @ApiResponse(responseCode = "304", description = "Statistics unchanged since the given ETag"),
         @ApiResponse(responseCode = "404", description = "Car not found")
     })
     @GetMapping("/{id}/fuel/stats")
     public ResponseEntity<com.carmanagement.dto.ApiResponse<FuelStats>> getFuelStatistics(
-            @Parameter(description = "ID of the car") @PathVariable Long id) {
+            @Parameter(description = "ID of the car") @PathVariable Long id,
+            @Parameter(description = "Window start: odometer reading, ISO date or ISO date-time (server time zone)") @RequestParam(required = false) String from,
+            @Parameter(description = "Window end: odometer reading, ISO date (whole day) or ISO date-time (server time zone)") @RequestParam(required = false) String to,
+            @Parameter(description = "Window key: odometer or time; inferred from from/to when omitted") @RequestParam(required = false) String by,
+            WebRequest webRequest) {
         logger.info("GET /api/cars/{}/fuel/stats - Retrieving fuel statistics", id);
         
-        FuelStats stats = fuelService.calculateStatistics(id);
+        boolean windowed = from != null || to != null || by != null;
+        long version = fuelService.getVersion(id);
+        String etag = windowed ? ETags.forStats(id, version, by, from, to) : ETags.forStats(id, version);
+        
+        // Skip computation and serialization when the client's copy is current
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        
+        FuelStats stats = windowed
+            ? fuelService.calculateStatistics(id, by, from, to)
+            : fuelService.calculateStatistics(id);
         
         return com.carmanagement.util.ResponseHandler.success(stats);
     }
+    
+    /**
+     * GET /api/cars/{id}/fuel/rollups?granularity=day&from=&to=
+     * Get hourly, daily or monthly fuel totals for a car
+     */
+    @Operation(summary = "Get fuel rollups", description = "Liters, cost, distance and entry count per hour, day or month, from materialized rollups")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved rollups"),
+        @ApiResponse(responseCode = "400", description = "Invalid granularity or window"),
+        @ApiResponse(responseCode = "404", description = "Car not found")
+    })
+    @GetMapping("/{id}/fuel/rollups")
+    public ResponseEntity<com.carmanagement.dto.ApiResponse<FuelRollupReport>> getFuelRollups(
+            @Parameter(description = "ID of the car") @PathVariable Long id,
+            @Parameter(description = "Bucket size: hour, day or month") @RequestParam(defaultValue = "month") String granularity,
+            @Parameter(description = "Window start: ISO date or ISO date-time (server time zone)") @RequestParam(required = false) String from,
+            @Parameter(description = "Window end: ISO date (whole day) or ISO date-time (server time zone)") @RequestParam(required = false) String to) {
+        logger.info("GET /api/cars/{}/fuel/rollups - granularity: {}, from: {}, to: {}", id, granularity, from, to);
+        
+        return com.carmanagement.util.ResponseHandler.success(fuelService.getRollups(id, granularity, from, to));
+    }
+    
+    /**
+     * GET /api/cars/{id}/fuel/consumption?points=300&method=lttb
+     * Get the consumption between consecutive fill-ups for charting
+     */
+    @Operation(summary = "Get consumption series",
+        description = "L/100km of each segment between consecutive fill-ups, optionally downsampled server-side to at most the given number of points")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved series"),
+        @ApiResponse(responseCode = "400", description = "Invalid points or method"),
+        @ApiResponse(responseCode = "404", description = "Car not found")
+    })
+    @GetMapping("/{id}/fuel/consumption")
+    public ResponseEntity<com.carmanagement.dto.ApiResponse<ConsumptionSeries>> getConsumptionSeries(
+            @Parameter(description = "ID of the car") @PathVariable Long id,
+            @Parameter(description = "Maximum number of points, omit for the full series") @RequestParam(required = false) Integer points,
+            @Parameter(description = "Downsampling method: lttb or minmax") @RequestParam(defaultValue = "lttb") String method) {
+        logger.info("GET /api/cars/{}/fuel/consumption - points: {}, method: {}", id, points, method);
+        
+        return com.carmanagement.util.ResponseHandler.success(fuelService.getConsumptionSeries(id, points, method));
+    }
 }
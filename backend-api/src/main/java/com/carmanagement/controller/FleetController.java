@@ -0,0 +1,83 @@
+package com.carmanagement.controller;
+
+import com.carmanagement.dto.FleetAnalytics;
+import com.carmanagement.dto.FuelRollupReport;
+import com.carmanagement.service.FleetAnalyticsService;
+import com.carmanagement.service.FuelService;
+import com.carmanagement.util.ResponseHandler;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST Controller for fleet-wide analytics
+ * Exposes endpoints at /api/fleet
+ */
+@RestController
+@RequestMapping("/api/fleet")
+@Tag(name = "Fleet Analytics", description = "Fuel statistics aggregated across cars")
+public class FleetController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FleetController.class);
+    
+    private final FleetAnalyticsService fleetAnalyticsService;
+    private final FuelService fuelService;
+    
+    @Autowired
+    public FleetController(FleetAnalyticsService fleetAnalyticsService, FuelService fuelService) {
+        this.fleetAnalyticsService = fleetAnalyticsService;
+        this.fuelService = fuelService;
+    }
+    
+    /**
+     * GET /api/fleet/analytics?groupBy=brand,model,year
+     * Get fleet totals, optionally grouped
+     */
+    @Operation(summary = "Get fleet analytics",
+        description = "Total fuel, total cost and average consumption across all cars, optionally grouped by brand, model and/or year")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully computed analytics"),
+        @ApiResponse(responseCode = "400", description = "Unknown groupBy dimension")
+    })
+    @GetMapping("/analytics")
+    public ResponseEntity<com.carmanagement.dto.ApiResponse<FleetAnalytics>> getAnalytics(
+            @Parameter(description = "Comma-separated dimensions to group by: brand, model, year")
+            @RequestParam(required = false) List<String> groupBy) {
+        logger.info("GET /api/fleet/analytics - groupBy: {}", groupBy);
+        
+        return ResponseHandler.success(fleetAnalyticsService.getAnalytics(groupBy));
+    }
+    
+    /**
+     * GET /api/fleet/rollups?granularity=month&from=&to=
+     * Get hourly, daily or monthly fuel totals across all cars
+     */
+    @Operation(summary = "Get fleet fuel rollups",
+        description = "Liters, cost, distance and entry count per hour, day or month across all cars, from materialized rollups")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved rollups"),
+        @ApiResponse(responseCode = "400", description = "Invalid granularity or window")
+    })
+    @GetMapping("/rollups")
+    public ResponseEntity<com.carmanagement.dto.ApiResponse<FuelRollupReport>> getRollups(
+            @Parameter(description = "Bucket size: hour, day or month") @RequestParam(defaultValue = "month") String granularity,
+            @Parameter(description = "Window start: ISO date or ISO date-time (server time zone)") @RequestParam(required = false) String from,
+            @Parameter(description = "Window end: ISO date (whole day) or ISO date-time (server time zone)") @RequestParam(required = false) String to) {
+        logger.info("GET /api/fleet/rollups - granularity: {}, from: {}, to: {}", granularity, from, to);
+        
+        return ResponseHandler.success(fuelService.getFleetRollups(granularity, from, to));
+    }
+}
@@ -0,0 +1,58 @@
+package com.carmanagement.controller;
+
+import com.carmanagement.service.FuelIngestService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * REST Controller for fleet-wide fuel ingestion
+ * Exposes endpoints at /api/fuel
+ */
+@RestController
+@RequestMapping("/api/fuel")
+@Tag(name = "Fuel Ingestion", description = "Bulk ingestion of fuel readings across cars")
+public class FuelIngestController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FuelIngestController.class);
+    private static final String NDJSON = "application/x-ndjson";
+    
+    private final FuelIngestService fuelIngestService;
+    
+    @Autowired
+    public FuelIngestController(FuelIngestService fuelIngestService) {
+        this.fuelIngestService = fuelIngestService;
+    }
+    
+    /**
+     * POST /api/fuel/ingest
+     * Stream NDJSON fuel readings ({carId, liters, price, odometer} per line)
+     * and receive NDJSON progress, error and summary lines back
+     */
+    @Operation(summary = "Stream fuel readings",
+        description = "Ingest a chunked application/x-ndjson body of {carId, liters, price, odometer} lines. " +
+                      "Responds with NDJSON progress, error and summary lines while the upload is processed")
+    @ApiResponse(responseCode = "200", description = "Ingestion processed, see streamed lines")
+    @PostMapping(value = "/ingest", consumes = NDJSON, produces = NDJSON)
+    public void ingest(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        logger.info("POST /api/fuel/ingest - Streaming fuel readings");
+        
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        
+        fuelIngestService.ingest(request.getInputStream(), response.getOutputStream());
+        response.flushBuffer();
+    }
+}
@@ -0,0 +1,23 @@
+package com.carmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fuel statistics of one car in a multi-car lookup
+ * Holds the statistics on success or the reason the lookup failed
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CarFuelStats {
+    
+    private Long carId;
+    
+    private FuelStats stats;
+    
+    private String error;
+}
@@ -0,0 +1,30 @@
+package com.carmanagement.dto;
+
+import com.carmanagement.model.Car;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lightweight Car projection for listings
+ * Leaves out the car's fuel entries
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarSummary {
+    
+    private Long id;
+    private String brand;
+    private String model;
+    private Integer year;
+    
+    /**
+     * Build a summary from a car entity
+     * @param car Car entity
+     * @return Summary projection of the car
+     */
+    public static CarSummary from(Car car) {
+        return new CarSummary(car.getId(), car.getBrand(), car.getModel(), car.getYear());
+    }
+}
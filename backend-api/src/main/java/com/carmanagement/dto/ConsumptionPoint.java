@@ -0,0 +1,41 @@
+package com.carmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object for the consumption of the segment ending at a fill-up
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumptionPoint {
+
+    /**
+     * Odometer reading of the fill-up that ends the segment
+     */
+    private Integer odometer;
+
+    /**
+     * Time of the fill-up that ends the segment
+     */
+    private LocalDateTime timestamp;
+
+    /**
+     * Distance driven since the previous fill-up in km
+     */
+    private Integer distance;
+
+    /**
+     * Fuel added at the fill-up in liters
+     */
+    private Double liters;
+
+    /**
+     * Consumption over the segment in liters per 100km
+     */
+    private Double consumption;
+}
@@ -0,0 +1,36 @@
+package com.carmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for a car's consumption between consecutive fill-ups
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumptionSeries {
+
+    /**
+     * ID of the car
+     */
+    private Long carId;
+
+    /**
+     * Number of segments in the full series
+     */
+    private int segmentCount;
+
+    /**
+     * Downsampling applied: none, lttb or minmax
+     */
+    private String downsampling;
+
+    /**
+     * Points of the series in odometer order
+     */
+    private List<ConsumptionPoint> points;
+}
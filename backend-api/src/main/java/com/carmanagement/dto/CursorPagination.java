@@ -0,0 +1,30 @@
+package com.carmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Keyset pagination metadata
+ * Pass nextCursor as the "after" parameter to fetch the following page
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPagination {
+    
+    /**
+     * Maximum number of items requested for the page
+     */
+    private int limit;
+    
+    /**
+     * ID of the last item on this page, null if there are no more pages
+     */
+    private Long nextCursor;
+    
+    /**
+     * Whether more items follow this page
+     */
+    private boolean hasMore;
+}
@@ -0,0 +1,32 @@
+package com.carmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for fleet-wide fuel analytics
+ * Contains totals over all cars and, when grouped, one entry per group
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FleetAnalytics {
+
+    /**
+     * Statistics over the whole fleet
+     */
+    private FleetStats fleet;
+
+    /**
+     * Dimensions the groups are keyed by, empty if not grouped
+     */
+    private List<String> groupBy;
+
+    /**
+     * Statistics per group, ordered by brand, model and year
+     */
+    private List<FleetGroupStats> groups;
+}
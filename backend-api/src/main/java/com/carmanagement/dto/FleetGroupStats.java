@@ -0,0 +1,25 @@
+package com.carmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fleet statistics of one group of cars
+ * Only the dimensions the fleet was grouped by are set
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FleetGroupStats {
+
+    private String brand;
+
+    private String model;
+
+    private Integer year;
+
+    private FleetStats stats;
+}
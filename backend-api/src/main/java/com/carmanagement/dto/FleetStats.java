@@ -0,0 +1,50 @@
+package com.carmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for aggregated fuel statistics of a set of cars
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FleetStats {
+
+    /**
+     * Number of cars in the set
+     */
+    private long carCount;
+
+    /**
+     * Number of fuel entries across the cars
+     */
+    private long entryCount;
+
+    /**
+     * Sum of all fuel entries in liters
+     */
+    private Double totalFuel;
+
+    /**
+     * Cumulative expenditure on fuel
+     */
+    private Double totalCost;
+
+    /**
+     * Sum of the distances covered by each car, in km
+     */
+    private long totalDistance;
+
+    /**
+     * Distance-weighted consumption in liters per 100km over the cars that
+     * have a per-car average; null if none has
+     */
+    private Double averageConsumption;
+
+    /**
+     * Arithmetic mean of the per-car average consumptions; null if no car has one
+     */
+    private Double meanCarConsumption;
+}
@@ -0,0 +1,37 @@
+package com.carmanagement.dto;
+
+import com.carmanagement.model.FuelEntry;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a fuel entry batch
+ * Holds the created entry on success or the rejection reason on failure
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FuelBatchItemResult {
+    
+    /**
+     * Position of the item in the submitted batch
+     */
+    private int index;
+    
+    private boolean success;
+    
+    private FuelEntry entry;
+    
+    private String error;
+    
+    public static FuelBatchItemResult accepted(int index, FuelEntry entry) {
+        return new FuelBatchItemResult(index, true, entry, null);
+    }
+    
+    public static FuelBatchItemResult rejected(int index, String error) {
+        return new FuelBatchItemResult(index, false, null, error);
+    }
+}
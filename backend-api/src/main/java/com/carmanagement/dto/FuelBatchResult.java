@@ -0,0 +1,23 @@
+package com.carmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for fuel entry batch responses
+ * Contains per-item results in submission order
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FuelBatchResult {
+    
+    private int accepted;
+    
+    private int rejected;
+    
+    private List<FuelBatchItemResult> items;
+}
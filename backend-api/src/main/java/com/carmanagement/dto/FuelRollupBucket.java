@@ -0,0 +1,41 @@
+package com.carmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object for the fuel totals of one time bucket
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FuelRollupBucket {
+
+    /**
+     * Start of the bucket, in the server time zone
+     */
+    private LocalDateTime start;
+
+    /**
+     * Fuel added in the bucket in liters
+     */
+    private Double liters;
+
+    /**
+     * Cost of the fuel added in the bucket
+     */
+    private Double cost;
+
+    /**
+     * Distance driven up to each fill-up in the bucket, in km
+     */
+    private long distance;
+
+    /**
+     * Number of fuel entries in the bucket
+     */
+    private long count;
+}
@@ -0,0 +1,38 @@
+package com.carmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for time-bucketed fuel totals of a car or the fleet
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FuelRollupReport {
+
+    /**
+     * ID of the car, absent for fleet-wide reports
+     */
+    private Long carId;
+
+    /**
+     * Bucket size: hour, day or month
+     */
+    private String granularity;
+
+    /**
+     * Non-empty buckets in the window, oldest first
+     */
+    private List<FuelRollupBucket> buckets;
+
+    /**
+     * Totals over all buckets in the window
+     */
+    private FuelRollupBucket total;
+}
@@ -0,0 +1,32 @@
+package com.carmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for one car on the fuel-efficiency leaderboard
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntry {
+
+    /**
+     * Position on the leaderboard, starting at 1
+     */
+    private int rank;
+
+    private Long carId;
+
+    private String brand;
+
+    private String model;
+
+    private Integer year;
+
+    /**
+     * Average fuel consumption in liters per 100km
+     */
+    private Double averageConsumption;
+}
@@ -0,0 +1,18 @@
+package com.carmanagement.exception;
+
+/**
+ * Exception thrown when a car with the same brand, model, and year is already registered
+ * Extends IllegalArgumentException so it is reported as a bad request
+ */
+public class DuplicateCarException extends IllegalArgumentException {
+    
+    /**
+     * Constructor with the conflicting car details
+     * @param brand Car brand
+     * @param model Car model
+     * @param year Car year
+     */
+    public DuplicateCarException(String brand, String model, int year) {
+        super(String.format("Car already exists: %s %s (%d)", brand, model, year));
+    }
+}
@@ -1,27 +1,35 @@
 package com.carmanagement.model;
 
+import com.carmanagement.util.StringDictionary;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.Collections;
 
 /**
  * Car Entity
  * Represents a vehicle in the car management system
+ * Brand and model strings are shared through StringDictionary
  */
 @Data
 @NoArgsConstructor
 public class Car {
     
-    private Long id;
+    /**
+     * ID assigned by the repository, 0 until the car is stored
+     */
+    private long id;
     private String brand;
     private String model;
-    private Integer year;
+    private int year;
     
+    /**
+     * Read-only view of the car's fuel entries, backed by the fuel entry store
+     */
     @JsonManagedReference
-    private List<FuelEntry> fuelEntries = new ArrayList<>();
+    private Collection<FuelEntry> fuelEntries = Collections.emptyList();
     
     /**
      * Constructor for creating a new car
@@ -29,21 +37,17 @@ public class Car {
      * @param model Vehicle model name
      * @param year Manufacturing year
      */
-    public Car(String brand, String model, Integer year) {
-        this.brand = brand;
-        this.model = model;
+    public Car(String brand, String model, int year) {
+        this.brand = StringDictionary.intern(brand);
+        this.model = StringDictionary.intern(model);
         this.year = year;
-        this.fuelEntries = new ArrayList<>();
     }
     
-    /**
-     * Add a fuel entry to this car
-     * @param fuelEntry Fuel entry to add
-     */
-    public void addFuelEntry(FuelEntry fuelEntry) {
-        if (this.fuelEntries == null) {
-            this.fuelEntries = new ArrayList<>();
-        }
-        this.fuelEntries.add(fuelEntry);
+    public void setBrand(String brand) {
+        this.brand = StringDictionary.intern(brand);
+    }
+    
+    public void setModel(String model) {
+        this.model = StringDictionary.intern(model);
     }
 }
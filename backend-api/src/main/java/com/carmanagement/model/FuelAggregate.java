@@ -0,0 +1,56 @@
+package com.carmanagement.model;
+
+import lombok.Value;
+
+/**
+ * FuelAggregate Value
+ * Immutable running totals over a car's fuel history, replaced on every write
+ */
+@Value
+public class FuelAggregate {
+
+    public static final FuelAggregate EMPTY = new FuelAggregate(0.0, 0.0, 0, 0, 0L);
+
+    double totalLiters;
+    double totalCost;
+    int minOdometer;
+    int maxOdometer;
+    long entryCount;
+
+    /**
+     * Fold a new fuel entry into the running totals
+     * @param liters Fuel quantity added
+     * @param price Total cost of fuel
+     * @param odometer Vehicle mileage reading
+     * @return New aggregate including the entry
+     */
+    public FuelAggregate plus(double liters, double price, int odometer) {
+        if (entryCount == 0) {
+            return new FuelAggregate(liters, price, odometer, odometer, 1L);
+        }
+        return new FuelAggregate(
+            totalLiters + liters,
+            totalCost + price,
+            Math.min(minOdometer, odometer),
+            Math.max(maxOdometer, odometer),
+            entryCount + 1
+        );
+    }
+
+    /**
+     * Fold a persisted fuel entry into the running totals
+     * @param entry Fuel entry to add
+     * @return New aggregate including the entry
+     */
+    public FuelAggregate plus(FuelEntry entry) {
+        return plus(entry.getLiters(), entry.getPrice(), entry.getOdometer());
+    }
+
+    /**
+     * Distance covered between the lowest and highest odometer readings
+     * @return Distance in km, 0 if fewer than two entries
+     */
+    public int getDistance() {
+        return entryCount >= 2 ? maxOdometer - minOdometer : 0;
+    }
+}
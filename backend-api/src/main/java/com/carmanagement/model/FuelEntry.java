@@ -1,6 +1,8 @@
 package com.carmanagement.model;
 
+import com.carmanagement.util.LocalTimes;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -9,16 +11,24 @@ import java.time.LocalDateTime;
 /**
  * FuelEntry Entity
  * Represents a fuel entry record for a car
+ * Fields are primitives and the timestamp is held as epoch millis, so an
+ * entry is a single object; timestamp is still exposed as a LocalDateTime
+ * in the server time zone
  */
 @Data
 @NoArgsConstructor
 public class FuelEntry {
     
-    private Long id;
-    private Double liters;
-    private Double price;
-    private Integer odometer;
-    private LocalDateTime timestamp;
+    /**
+     * ID assigned by the store, 0 until the entry is stored
+     */
+    private long id;
+    private double liters;
+    private double price;
+    private int odometer;
+    
+    @JsonIgnore
+    private long timestampMillis;
     
     @JsonBackReference
     private Car car;
@@ -38,7 +48,23 @@ public class FuelEntry {
         this.liters = liters;
         this.price = price;
         this.odometer = odometer;
-        this.timestamp = LocalDateTime.now();
+        this.timestampMillis = System.currentTimeMillis();
+    }
+    
+    /**
+     * Time the entry was recorded, in the server time zone
+     * @return Timestamp as a LocalDateTime
+     */
+    public LocalDateTime getTimestamp() {
+        return LocalTimes.toDateTime(timestampMillis);
+    }
+    
+    /**
+     * Set the time the entry was recorded
+     * @param timestamp Timestamp in the server time zone
+     */
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestampMillis = LocalTimes.toMillis(timestamp);
     }
     
     /**
@@ -0,0 +1,40 @@
+package com.carmanagement.model;
+
+import lombok.Value;
+
+/**
+ * FuelRollup Value
+ * Immutable totals of the fuel entries that fall into one time bucket,
+ * replaced on every write to the bucket
+ */
+@Value
+public class FuelRollup {
+
+    public static final FuelRollup EMPTY = new FuelRollup(0.0, 0.0, 0L, 0L);
+
+    double liters;
+    double cost;
+    long distance;
+    long count;
+
+    /**
+     * Fold a fuel entry into the bucket
+     * @param liters Fuel quantity added
+     * @param price Total cost of fuel
+     * @param distance Distance driven since the car's previous entry
+     * @return New rollup including the entry
+     */
+    public FuelRollup plus(double liters, double price, long distance) {
+        return new FuelRollup(this.liters + liters, cost + price, this.distance + distance, count + 1);
+    }
+
+    /**
+     * Combine two buckets
+     * @param other Rollup to add
+     * @return New rollup with the totals of both
+     */
+    public FuelRollup plus(FuelRollup other) {
+        return new FuelRollup(liters + other.liters, cost + other.cost,
+            distance + other.distance, count + other.count);
+    }
+}
@@ -0,0 +1,22 @@
+package com.carmanagement.persistence;
+
+/**
+ * When the write-ahead log forces appended records to the storage device
+ */
+public enum FsyncPolicy {
+    
+    /**
+     * Force every group-committed batch before acknowledging the writers
+     */
+    ALWAYS,
+    
+    /**
+     * Acknowledge once written to the OS, force periodically in the background
+     */
+    INTERVAL,
+    
+    /**
+     * Acknowledge once written to the OS and leave flushing to the OS
+     */
+    OS
+}
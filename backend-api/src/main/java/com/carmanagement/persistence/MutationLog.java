@@ -0,0 +1,59 @@
+package com.carmanagement.persistence;
+
+import com.carmanagement.model.Car;
+import com.carmanagement.model.FuelEntry;
+
+import java.util.List;
+
+/**
+ * Sink for repository mutations that must survive a restart
+ * Repositories log a mutation before they make it visible, and run both
+ * steps through publish so that a snapshot never falls between them
+ */
+public interface MutationLog {
+    
+    /**
+     * Log used while durable mode is disabled
+     */
+    MutationLog NONE = new MutationLog() {
+        @Override
+        public void carSaved(Car car) {
+        }
+        
+        @Override
+        public void fuelEntrySaved(FuelEntry entry) {
+        }
+    };
+    
+    /**
+     * Run a step that logs mutations and then makes them visible
+     * A log that takes snapshots does not start one while a step is running,
+     * so every mutation logged before a snapshot is visible to it
+     * @param step Logs and publishes one or more mutations
+     */
+    default void publish(Runnable step) {
+        step.run();
+    }
+    
+    /**
+     * Record a newly saved car
+     * @param car Saved car with assigned ID
+     */
+    void carSaved(Car car);
+    
+    /**
+     * Record a newly saved fuel entry
+     * @param entry Saved fuel entry with assigned ID and car
+     */
+    void fuelEntrySaved(FuelEntry entry);
+    
+    /**
+     * Record a batch of newly saved fuel entries
+     * @param entries Saved fuel entries with assigned IDs and car
+     */
+    default void fuelEntriesSaved(List<FuelEntry> entries) {
+        for (FuelEntry entry : entries) {
+            fuelEntrySaved(entry);
+        }
+    }
+}
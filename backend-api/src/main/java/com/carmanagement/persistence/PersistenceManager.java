@@ -0,0 +1,181 @@
+package com.carmanagement.persistence;
+
+import com.carmanagement.model.Car;
+import com.carmanagement.model.FuelEntry;
+import com.carmanagement.repository.CarRepository;
+import com.carmanagement.repository.FuelEntryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable mode for the in-memory repositories
+ * Recovers cars and fuel entries from the write-ahead log on startup, then
+ * attaches the log to both repositories and takes periodic snapshots
+ * Enabled with persistence.enabled=true
+ */
+@Component
+@ConditionalOnProperty(name = "persistence.enabled", havingValue = "true")
+public class PersistenceManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistenceManager.class);
+
+    private final CarRepository carRepository;
+    private final FuelEntryRepository fuelEntryRepository;
+    private final WriteAheadLog writeAheadLog;
+    private final long snapshotIntervalMs;
+    private ScheduledExecutorService snapshotScheduler;
+
+    @Autowired
+    public PersistenceManager(CarRepository carRepository,
+                              FuelEntryRepository fuelEntryRepository,
+                              @Value("${persistence.directory:data}") String directory,
+                              @Value("${persistence.fsync-policy:interval}") String fsyncPolicy,
+                              @Value("${persistence.fsync-interval-ms:100}") long fsyncIntervalMs,
+                              @Value("${persistence.snapshot-interval-ms:300000}") long snapshotIntervalMs) {
+        this.carRepository = carRepository;
+        this.fuelEntryRepository = fuelEntryRepository;
+        this.snapshotIntervalMs = snapshotIntervalMs;
+        this.writeAheadLog = new WriteAheadLog(
+            Paths.get(directory),
+            FsyncPolicy.valueOf(fsyncPolicy.trim().toUpperCase(Locale.ROOT)),
+            fsyncIntervalMs
+        );
+    }
+
+    /**
+     * Recover persisted state and start logging mutations
+     * @throws IOException if the log cannot be read or opened
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        recover();
+        writeAheadLog.open();
+        carRepository.setMutationLog(writeAheadLog);
+        fuelEntryRepository.setMutationLog(writeAheadLog);
+
+        if (snapshotIntervalMs > 0) {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "wal-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshotScheduler.scheduleWithFixedDelay(
+                this::snapshotQuietly, snapshotIntervalMs, snapshotIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stop snapshots and close the log after flushing pending records
+     * @throws IOException if the log cannot be closed
+     */
+    @PreDestroy
+    public void stop() throws IOException {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        carRepository.setMutationLog(MutationLog.NONE);
+        fuelEntryRepository.setMutationLog(MutationLog.NONE);
+        writeAheadLog.close();
+    }
+
+    /**
+     * Write a snapshot of both repositories and drop the WAL generations it covers
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void snapshot() throws IOException {
+        writeAheadLog.snapshot(writer -> {
+            for (Car car : carRepository.findAll()) {
+                writer.writeCar(car);
+                if (fuelEntryRepository.isDurable()) {
+                    continue;
+                }
+                for (FuelEntry entry : fuelEntryRepository.findByCarId(car.getId())) {
+                    writer.writeFuelEntry(entry);
+                }
+            }
+        });
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (Exception e) {
+            logger.error("Failed to write snapshot", e);
+        }
+    }
+
+    /**
+     * Replay snapshot and WAL tail into the repositories
+     * Records already covered by the snapshot are skipped: cars by ID, fuel
+     * entries by the per-car rule that odometer readings only increase
+     * Fuel records are ignored when the fuel entry store is durable on its own
+     */
+    private void recover() throws IOException {
+        Map<Long, Integer> lastOdometers = new HashMap<>();
+
+        writeAheadLog.replay(new WriteAheadLog.ReplayHandler() {
+            @Override
+            public void onCar(long id, String brand, String model, int year) {
+                if (carRepository.findById(id).isPresent()) {
+                    return;
+                }
+                Car car = new Car(brand, model, year);
+                car.setId(id);
+                carRepository.restore(car);
+                car.setFuelEntries(fuelEntryRepository.entriesOf(id));
+                fuelEntryRepository.restoreCar(car);
+            }
+
+            @Override
+            public void onFuelEntry(long carId, long id, double liters, double price,
+                                    int odometer, long timestampMillis) {
+                if (fuelEntryRepository.isDurable()) {
+                    return;
+                }
+                Integer lastOdometer = lastOdometers.get(carId);
+                if (lastOdometer != null && odometer <= lastOdometer) {
+                    return;
+                }
+                Car car = carRepository.findById(carId).orElse(null);
+                if (car == null) {
+                    logger.warn("Skipping recovered fuel entry {} for unknown car ID: {}", id, carId);
+                    return;
+                }
+                FuelEntry entry = new FuelEntry();
+                entry.setId(id);
+                entry.setLiters(liters);
+                entry.setPrice(price);
+                entry.setOdometer(odometer);
+                entry.setTimestampMillis(timestampMillis);
+                entry.setCar(car);
+                fuelEntryRepository.restore(entry);
+                lastOdometers.put(carId, odometer);
+            }
+        });
+
+        // Records of unknown cars would be inherited by new cars reusing their IDs
+        Set<Long> orphaned = fuelEntryRepository.orphanedCarIds();
+        if (!orphaned.isEmpty()) {
+            throw new IllegalStateException("Stored fuel entries belong to " + orphaned.size()
+                + " cars missing from the write-ahead log (e.g. car ID " + orphaned.iterator().next()
+                + "); persistence.directory and fuel.storage.mapped.directory are out of sync");
+        }
+        logger.info("Recovered {} cars and {} fuel entries", carRepository.count(), fuelEntryRepository.count());
+    }
+}
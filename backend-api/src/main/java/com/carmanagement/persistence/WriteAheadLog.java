@@ -0,0 +1,592 @@
+package com.carmanagement.persistence;
+
+import com.carmanagement.model.Car;
+import com.carmanagement.model.FuelEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary write-ahead log with group commit and compact snapshots
+ *
+ * Records are framed as [int length][payload][int crc32] and written through a
+ * FileChannel by a single writer thread that drains every pending record in
+ * one batch. The log is split into generations (wal-N.log); a snapshot taken
+ * at generation N covers everything logged before it, so recovery loads the
+ * snapshot and replays only generations N and later.
+ *
+ * Repositories log and publish each mutation inside publish, which holds the
+ * read side of a barrier; a snapshot rotates under the write side, so every
+ * record in the generations it replaces is visible when it reads the
+ * repositories, and those generations can be deleted safely.
+ *
+ * A failed write fails only the appends of its batch; the log then moves on
+ * to a fresh generation, so the torn tail of the broken one ends its replay
+ * without hiding later records. If no new generation can be opened, every
+ * append fails until one can.
+ */
+public class WriteAheadLog implements MutationLog, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    private static final byte END_RECORD = 0;
+    private static final byte CAR_RECORD = 1;
+    private static final byte FUEL_RECORD = 2;
+    private static final int SNAPSHOT_MAGIC = 0x43465331;
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final String WAL_PREFIX = "wal-";
+    private static final String WAL_SUFFIX = ".log";
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalMs;
+
+    private final Object lock = new Object();
+    private final ReentrantReadWriteLock publishBarrier = new ReentrantReadWriteLock();
+    private Batch pending = new Batch();
+    private long appendedSeq;
+    private long writtenSeq;
+    private IOException failure;
+    private boolean closed;
+    private FileChannel channel;
+    private long generation;
+
+    private Thread writerThread;
+    private ScheduledExecutorService syncScheduler;
+
+    /**
+     * Callback receiving recovered records in log order
+     */
+    public interface ReplayHandler {
+
+        void onCar(long id, String brand, String model, int year);
+
+        void onFuelEntry(long carId, long id, double liters, double price, int odometer, long timestampMillis);
+    }
+
+    /**
+     * Sink used to write the contents of a snapshot
+     */
+    public interface SnapshotWriter {
+
+        void writeCar(Car car) throws IOException;
+
+        void writeFuelEntry(FuelEntry entry) throws IOException;
+    }
+
+    /**
+     * Source of snapshot contents, typically the live repositories
+     */
+    public interface SnapshotSource {
+
+        void writeTo(SnapshotWriter writer) throws IOException;
+    }
+
+    /**
+     * Create a log over a directory; nothing is opened until replay and open are called
+     * @param directory Directory holding snapshot and WAL generations
+     * @param fsyncPolicy When appended records are forced to disk
+     * @param fsyncIntervalMs Background force interval for FsyncPolicy.INTERVAL
+     */
+    public WriteAheadLog(Path directory, FsyncPolicy fsyncPolicy, long fsyncIntervalMs) {
+        this.directory = directory;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalMs = fsyncIntervalMs;
+    }
+
+    /**
+     * Load the latest snapshot and replay the WAL generations written after it
+     * A torn record at the end of a generation ends the replay of that generation
+     * @param handler Receives recovered records
+     * @throws IOException if the directory cannot be read
+     */
+    public void replay(ReplayHandler handler) throws IOException {
+        Files.createDirectories(directory);
+        long snapshotGeneration = 0;
+        long records = 0;
+
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshot)) {
+            try (DataInputStream in = open(snapshot)) {
+                if (in.readInt() != SNAPSHOT_MAGIC) {
+                    throw new IOException("Not a snapshot file: " + snapshot);
+                }
+                snapshotGeneration = in.readLong();
+                records += replayRecords(in, handler, snapshot);
+            }
+        }
+
+        for (long walGeneration : walGenerations()) {
+            generation = Math.max(generation, walGeneration);
+            if (walGeneration < snapshotGeneration) {
+                continue;
+            }
+            Path wal = walFile(walGeneration);
+            try (DataInputStream in = open(wal)) {
+                records += replayRecords(in, handler, wal);
+            }
+        }
+        generation = Math.max(generation, snapshotGeneration);
+        logger.info("Recovered {} records (snapshot generation {}, last WAL generation {})",
+            records, snapshotGeneration, generation);
+    }
+
+    /**
+     * Start a fresh WAL generation and the background writer
+     * @throws IOException if the WAL file cannot be created
+     */
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        synchronized (lock) {
+            generation++;
+            channel = openChannel(generation);
+        }
+        writerThread = new Thread(this::writeLoop, "wal-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            syncScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "wal-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncScheduler.scheduleWithFixedDelay(
+                this::forceQuietly, fsyncIntervalMs, fsyncIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        logger.info("Write-ahead log opened at {} (generation {}, fsync policy {})",
+            directory, generation, fsyncPolicy);
+    }
+
+    @Override
+    public void publish(Runnable step) {
+        publishBarrier.readLock().lock();
+        try {
+            step.run();
+        } finally {
+            publishBarrier.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void carSaved(Car car) {
+        append(encode(out -> {
+            out.writeByte(CAR_RECORD);
+            writeCarPayload(out, car);
+        }));
+    }
+
+    @Override
+    public void fuelEntrySaved(FuelEntry entry) {
+        append(encode(out -> {
+            out.writeByte(FUEL_RECORD);
+            writeFuelPayload(out, entry);
+        }));
+    }
+
+    /**
+     * Log a batch of fuel entries as one group commit
+     */
+    @Override
+    public void fuelEntriesSaved(List<FuelEntry> entries) {
+        ByteArrayOutputStream frames = new ByteArrayOutputStream(entries.size() * 64);
+        for (FuelEntry entry : entries) {
+            byte[] frame = encode(out -> {
+                out.writeByte(FUEL_RECORD);
+                writeFuelPayload(out, entry);
+            });
+            frames.write(frame, 0, frame.length);
+        }
+        append(frames.toByteArray());
+    }
+
+    /**
+     * Write a compact snapshot and drop the WAL generations it covers
+     * The log rotates to a new generation first, once every running publish
+     * step has made its records visible, so the snapshot contains every record
+     * of the older generations; records logged while it is being written are
+     * kept in the new generation and replay skips the ones it already contains
+     * @param source Writes the current state into the snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void snapshot(SnapshotSource source) throws IOException {
+        long snapshotGeneration;
+        publishBarrier.writeLock().lock();
+        try {
+            snapshotGeneration = rotate();
+        } finally {
+            publishBarrier.writeLock().unlock();
+        }
+
+        Path tmp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(
+                Channels.newOutputStream(out), 1 << 16));
+            data.writeInt(SNAPSHOT_MAGIC);
+            data.writeLong(snapshotGeneration);
+            source.writeTo(new SnapshotWriter() {
+                @Override
+                public void writeCar(Car car) throws IOException {
+                    data.write(encode(record -> {
+                        record.writeByte(CAR_RECORD);
+                        writeCarPayload(record, car);
+                    }));
+                }
+
+                @Override
+                public void writeFuelEntry(FuelEntry entry) throws IOException {
+                    data.write(encode(record -> {
+                        record.writeByte(FUEL_RECORD);
+                        writeFuelPayload(record, entry);
+                    }));
+                }
+            });
+            data.write(encode(record -> record.writeByte(END_RECORD)));
+            data.flush();
+            out.force(true);
+        }
+        Files.move(tmp, directory.resolve(SNAPSHOT_FILE),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        for (long walGeneration : walGenerations()) {
+            if (walGeneration < snapshotGeneration) {
+                Files.deleteIfExists(walFile(walGeneration));
+            }
+        }
+        logger.info("Wrote snapshot at generation {}", snapshotGeneration);
+    }
+
+    /**
+     * Flush pending records, force the current generation and stop background threads
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            awaitWritten(appendedSeq);
+            closed = true;
+            lock.notifyAll();
+        }
+        if (syncScheduler != null) {
+            syncScheduler.shutdownNow();
+        }
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            channel.force(true);
+            channel.close();
+        }
+        logger.info("Write-ahead log closed at generation {}", generation);
+    }
+
+    /**
+     * Queue a framed record and wait until its group commit completes
+     * @throws UncheckedIOException if the batch holding the record could not be written
+     */
+    private void append(byte[] frame) {
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Write-ahead log is closed");
+            }
+            if (failure != null) {
+                reopen();
+            }
+            Batch batch = pending;
+            batch.frames.write(frame, 0, frame.length);
+            ++appendedSeq;
+            lock.notifyAll();
+
+            // Wait out interrupts: the caller must learn whether its record is in the log
+            boolean interrupted = false;
+            while (!batch.done) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (batch.error != null) {
+                throw new UncheckedIOException("Write-ahead log append failed", batch.error);
+            }
+        }
+    }
+
+    /**
+     * Wait, holding the lock, until the writer has handled the given sequence
+     */
+    private void awaitWritten(long seq) {
+        while (writtenSeq < seq) {
+            try {
+                lock.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for write-ahead log", e);
+            }
+        }
+    }
+
+    /**
+     * Leave a broken generation for a fresh one, holding the lock
+     * @throws UncheckedIOException if no new generation can be opened
+     */
+    private void reopen() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.debug("Closing broken WAL generation {} failed: {}", generation, e.getMessage());
+        }
+        try {
+            channel = openChannel(generation + 1);
+            generation++;
+            failure = null;
+            logger.warn("Write-ahead log continues in generation {} after a failed write", generation);
+        } catch (IOException e) {
+            failure = e;
+            throw new UncheckedIOException("Write-ahead log is unavailable", e);
+        }
+    }
+
+    /**
+     * Writer thread: drain all pending records as one batch per write
+     */
+    private void writeLoop() {
+        while (true) {
+            Batch batch;
+            long batchSeq;
+            FileChannel target;
+            synchronized (lock) {
+                while (pending.frames.size() == 0 && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (pending.frames.size() == 0) {
+                    return;
+                }
+                batch = pending;
+                pending = new Batch();
+                batchSeq = appendedSeq;
+                target = channel;
+            }
+
+            IOException error = null;
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(batch.frames.toByteArray());
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+                if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                    target.force(false);
+                }
+            } catch (IOException e) {
+                logger.error("Failed to write {} bytes to write-ahead log", batch.frames.size(), e);
+                error = e;
+            }
+
+            synchronized (lock) {
+                writtenSeq = batchSeq;
+                batch.error = error;
+                batch.done = true;
+                if (error != null && target == channel) {
+                    failure = error;
+                }
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Records committed together by one write
+     */
+    private static final class Batch {
+
+        private final ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        private boolean done;
+        private IOException error;
+    }
+
+    /**
+     * Switch appends to a new generation once everything queued so far is written
+     * @return The new generation number
+     */
+    private long rotate() throws IOException {
+        synchronized (lock) {
+            awaitWritten(appendedSeq);
+            if (failure != null) {
+                reopen();
+            }
+            channel.force(true);
+            channel.close();
+            generation++;
+            channel = openChannel(generation);
+            return generation;
+        }
+    }
+
+    private void forceQuietly() {
+        FileChannel target;
+        synchronized (lock) {
+            target = channel;
+        }
+        try {
+            target.force(false);
+        } catch (IOException e) {
+            // channel rotated or closed concurrently; the next tick forces the new one
+            logger.debug("Background fsync skipped: {}", e.getMessage());
+        }
+    }
+
+    private FileChannel openChannel(long walGeneration) throws IOException {
+        return FileChannel.open(walFile(walGeneration),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path walFile(long walGeneration) {
+        return directory.resolve(WAL_PREFIX + walGeneration + WAL_SUFFIX);
+    }
+
+    private List<Long> walGenerations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                .filter(name -> name.startsWith(WAL_PREFIX) && name.endsWith(WAL_SUFFIX))
+                .forEach(name -> generations.add(Long.parseLong(
+                    name.substring(WAL_PREFIX.length(), name.length() - WAL_SUFFIX.length()))));
+        }
+        generations.sort(Comparator.naturalOrder());
+        return generations;
+    }
+
+    private static DataInputStream open(Path file) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        return new DataInputStream(new BufferedInputStream(in, 1 << 16));
+    }
+
+    /**
+     * Replay framed records until end of file, an end marker, or a torn record
+     * @return Number of records replayed
+     */
+    private static long replayRecords(DataInputStream in, ReplayHandler handler, Path file) throws IOException {
+        long count = 0;
+        CRC32 crc = new CRC32();
+        while (true) {
+            byte[] payload;
+            try {
+                int length = in.readInt();
+                if (length <= 0) {
+                    logger.warn("Corrupt record length {} in {}, ignoring remainder", length, file);
+                    return count;
+                }
+                payload = new byte[length];
+                in.readFully(payload);
+                int checksum = in.readInt();
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    logger.warn("Checksum mismatch in {}, ignoring remainder", file);
+                    return count;
+                }
+            } catch (EOFException e) {
+                return count;
+            }
+
+            DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+            byte type = record.readByte();
+            switch (type) {
+                case END_RECORD:
+                    return count;
+                case CAR_RECORD:
+                    handler.onCar(record.readLong(), record.readUTF(), record.readUTF(), record.readInt());
+                    break;
+                case FUEL_RECORD:
+                    handler.onFuelEntry(record.readLong(), record.readLong(), record.readDouble(),
+                        record.readDouble(), record.readInt(), record.readLong());
+                    break;
+                default:
+                    throw new IOException("Unknown record type " + type + " in " + file);
+            }
+            count++;
+        }
+    }
+
+    private interface PayloadWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Frame a payload as [int length][payload][int crc32]
+     */
+    private static byte[] encode(PayloadWriter writer) {
+        try {
+            ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(64);
+            writer.write(new DataOutputStream(payloadBytes));
+            byte[] payload = payloadBytes.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+
+            ByteArrayOutputStream frame = new ByteArrayOutputStream(payload.length + 8);
+            DataOutputStream out = new DataOutputStream(frame);
+            out.writeInt(payload.length);
+            out.write(payload);
+            out.writeInt((int) crc.getValue());
+            return frame.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeCarPayload(DataOutputStream out, Car car) throws IOException {
+        out.writeLong(car.getId());
+        out.writeUTF(car.getBrand());
+        out.writeUTF(car.getModel());
+        out.writeInt(car.getYear());
+    }
+
+    private static void writeFuelPayload(DataOutputStream out, FuelEntry entry) throws IOException {
+        out.writeLong(entry.getCar().getId());
+        out.writeLong(entry.getId());
+        out.writeDouble(entry.getLiters());
+        out.writeDouble(entry.getPrice());
+        out.writeInt(entry.getOdometer());
+        out.writeLong(entry.getTimestampMillis());
+    }
+}
@@ -0,0 +1,118 @@
+package com.carmanagement.repository;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Append-only list for a single writer and lock-free readers
+ * Elements live in chunks that double in size and are never moved or
+ * copied once written; only the small chunk directory is replaced as the
+ * list grows. The writer publishes a grown directory through the volatile
+ * chunks field before writing into it, then fills a slot and publishes it
+ * through the volatile size. Readers read size first and chunks second, so
+ * a reader that sees a size also sees a directory holding every chunk below
+ * it and every element below it. Iterators read the size once and walk that
+ * stable prefix
+ *
+ * Callers must serialize add; reads need no coordination
+ *
+ * @param <E> Element type
+ */
+public final class AppendOnlyList<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final int FIRST_CHUNK_SIZE = 8;
+    private static final int FIRST_CHUNK_SHIFT = 3;
+
+    private volatile Object[][] chunks = new Object[0][];
+    private volatile int size;
+
+    /**
+     * Append an element; must not be called concurrently
+     */
+    @Override
+    public boolean add(E element) {
+        int n = size;
+        int chunk = chunkOf(n);
+        Object[][] directory = chunks;
+        if (chunk == directory.length) {
+            directory = Arrays.copyOf(directory, chunk + 1);
+            directory[chunk] = new Object[FIRST_CHUNK_SIZE << chunk];
+            // Publish the grown directory before anything is written into it
+            chunks = directory;
+        }
+        directory[chunk][offsetOf(n, chunk)] = element;
+        // Publish the element
+        size = n + 1;
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        int n = size;
+        if (index < 0 || index >= n) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + n);
+        }
+        int chunk = chunkOf(index);
+        return (E) chunks[chunk][offsetOf(index, chunk)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Last element, or null if empty
+     */
+    public E last() {
+        int n = size;
+        return n > 0 ? get(n - 1) : null;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        int end = size;
+        Object[][] snapshot = chunks;
+        return new Iterator<>() {
+            private int index;
+            private int chunk;
+            private int offset;
+
+            @Override
+            public boolean hasNext() {
+                return index < end;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (index >= end) {
+                    throw new NoSuchElementException();
+                }
+                Object[] current = snapshot[chunk];
+                E element = (E) current[offset];
+                index++;
+                if (++offset == current.length) {
+                    chunk++;
+                    offset = 0;
+                }
+                return element;
+            }
+        };
+    }
+
+    /**
+     * Chunk holding an index: chunk k starts at FIRST_CHUNK_SIZE * (2^k - 1)
+     */
+    private static int chunkOf(int index) {
+        return 31 - Integer.numberOfLeadingZeros((index >>> FIRST_CHUNK_SHIFT) + 1);
+    }
+
+    private static int offsetOf(int index, int chunk) {
+        return index - (FIRST_CHUNK_SIZE * ((1 << chunk) - 1));
+    }
+}
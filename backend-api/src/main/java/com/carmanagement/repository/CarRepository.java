@@ -1,43 +1,116 @@
 package com.carmanagement.repository;
 
+import com.carmanagement.exception.DuplicateCarException;
 import com.carmanagement.model.Car;
+import com.carmanagement.persistence.MutationLog;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * in-memory repository for Car entities
- * Uses ConcurrentHashMap for concurrent access and AtomicLong for ID generation
+ * Uses a ConcurrentSkipListMap ordered by ID for concurrent access and keyset
+ * pagination, and AtomicLong for ID generation
+ * Keeps a case-insensitive (brand, model, year) index to enforce uniqueness
+ * Search indexes map a case-folded brand (hash), model (sorted, for prefix
+ * scans) and year (sorted buckets, for ranges) to ID-ordered posting sets
  */
 @Repository
 public class CarRepository {
     
     private static final Logger logger = LoggerFactory.getLogger(CarRepository.class);
     
-    private final ConcurrentHashMap<Long, Car> carStorage = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Car> carStorage = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, Long> naturalKeyIndex = new ConcurrentHashMap<>();
     private final AtomicLong idGenerator = new AtomicLong(1L);
+    private final AtomicLong carCount = new AtomicLong();
+    private final ConcurrentHashMap<String, Posting> brandIndex = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Posting> modelIndex = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Integer, Posting> yearIndex = new ConcurrentSkipListMap<>();
+    private volatile MutationLog mutationLog = MutationLog.NONE;
     
     /**
      * Persist a new car with auto-generated ID
+     * Atomically claims the car's (brand, model, year) key before an ID is
+     * assigned, so a rejected duplicate never consumes an ID, and logs the
+     * car before it becomes visible
      * @param car Car entity to save
      * @return Saved car with assigned ID
+     * @throws DuplicateCarException if another car already holds the same key
      */
     public Car save(Car car) {
-        if (car.getId() == null) {
-            car.setId(idGenerator.getAndIncrement());
+        long requestedId = car.getId();
+        boolean[] claimed = new boolean[1];
+        Long owner = naturalKeyIndex.computeIfAbsent(
+            naturalKey(car.getBrand(), car.getModel(), car.getYear()), key -> {
+                claimed[0] = true;
+                return requestedId != 0 ? requestedId : idGenerator.getAndIncrement();
+            });
+        if (!claimed[0] && owner != requestedId) {
+            logger.warn("Car already exists: {} {} ({})", car.getBrand(), car.getModel(), car.getYear());
+            throw new DuplicateCarException(car.getBrand(), car.getModel(), car.getYear());
         }
-        carStorage.put(car.getId(), car);
+        if (requestedId != 0) {
+            idGenerator.accumulateAndGet(requestedId + 1, Math::max);
+        }
+        car.setId(owner);
+        MutationLog log = mutationLog;
+        log.publish(() -> {
+            if (claimed[0]) {
+                // Log before publishing; a failed append releases the key again
+                try {
+                    log.carSaved(car);
+                } catch (RuntimeException e) {
+                    naturalKeyIndex.remove(naturalKey(car.getBrand(), car.getModel(), car.getYear()), owner);
+                    throw e;
+                }
+            }
+            if (carStorage.put(car.getId(), car) == null) {
+                carCount.incrementAndGet();
+                index(car);
+            }
+        });
         logger.info("Saved car with ID: {} - {} {} ({})", 
             car.getId(), car.getBrand(), car.getModel(), car.getYear());
         return car;
     }
     
+    /**
+     * Put back a car recovered from durable storage, keeping its ID and without logging it again
+     * @param car Recovered car
+     */
+    public void restore(Car car) {
+        idGenerator.accumulateAndGet(car.getId() + 1, Math::max);
+        naturalKeyIndex.put(naturalKey(car.getBrand(), car.getModel(), car.getYear()), car.getId());
+        if (carStorage.put(car.getId(), car) == null) {
+            carCount.incrementAndGet();
+            index(car);
+        }
+    }
+    
+    /**
+     * Attach the log that records every saved car
+     * @param mutationLog Mutation log, MutationLog.NONE to stop logging
+     */
+    public void setMutationLog(MutationLog mutationLog) {
+        this.mutationLog = mutationLog;
+    }
+    
     /**
      * Retrieve a car by its unique identifier
      * @param id Car ID
@@ -63,12 +136,108 @@ public class CarRepository {
         return cars;
     }
     
+    /**
+     * Return one page of vehicles ordered by ID
+     * Cost is proportional to the page size, not the number of cars
+     * @param after Return cars with an ID greater than this, null to start from the first car
+     * @param limit Maximum number of cars to return
+     * @return Cars of the page in ascending ID order
+     */
+    public List<Car> findPage(Long after, int limit) {
+        Iterable<Car> source = after != null
+            ? carStorage.tailMap(after, false).values()
+            : carStorage.values();
+        List<Car> page = new ArrayList<>(Math.min(limit, 1024));
+        for (Car car : source) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(car);
+        }
+        logger.debug("Retrieved page of {} cars after ID: {}", page.size(), after);
+        return page;
+    }
+    
+    /**
+     * Return one page of the cars matching all given filters, ordered by ID
+     * The filter with the fewest candidates drives an ID-ordered walk of its
+     * posting sets; the other filters are checked on each candidate car, so
+     * the cost depends on the page size and the filters' selectivity, not on
+     * the fleet size
+     * @param brand Brand, case-insensitive, null for any
+     * @param modelPrefix Model prefix, case-insensitive, null for any
+     * @param yearFrom Lowest year, null for no lower bound
+     * @param yearTo Highest year, null for no upper bound
+     * @param after Return cars with an ID greater than this, null to start from the first match
+     * @param limit Maximum number of cars to return
+     * @return Matching cars in ascending ID order
+     */
+    public List<Car> search(String brand, String modelPrefix, Integer yearFrom, Integer yearTo,
+                            Long after, int limit) {
+        String brandKey = brand != null ? brand.toLowerCase(Locale.ROOT) : null;
+        String prefixKey = modelPrefix != null ? modelPrefix.toLowerCase(Locale.ROOT) : null;
+        int lowYear = yearFrom != null ? yearFrom : Integer.MIN_VALUE;
+        int highYear = yearTo != null ? yearTo : Integer.MAX_VALUE;
+        
+        // Pick the narrowest index as the driver
+        List<Posting> driver = null;
+        long driverSize = Long.MAX_VALUE;
+        if (brandKey != null) {
+            Posting posting = brandIndex.get(brandKey);
+            driver = posting != null ? List.of(posting) : List.of();
+            driverSize = sizeOf(driver);
+        }
+        if (prefixKey != null && driverSize > 0) {
+            List<Posting> postings = new ArrayList<>(
+                modelIndex.subMap(prefixKey, true, prefixKey + Character.MAX_VALUE, false).values());
+            long size = sizeOf(postings);
+            if (size < driverSize) {
+                driver = postings;
+                driverSize = size;
+            }
+        }
+        if ((yearFrom != null || yearTo != null) && driverSize > 0) {
+            List<Posting> postings = lowYear <= highYear
+                ? new ArrayList<>(yearIndex.subMap(lowYear, true, highYear, true).values())
+                : List.of();
+            long size = sizeOf(postings);
+            if (size < driverSize) {
+                driver = postings;
+                driverSize = size;
+            }
+        }
+        
+        Iterator<Long> candidates;
+        if (driver == null) {
+            candidates = (after != null ? carStorage.tailMap(after, false) : carStorage).keySet().iterator();
+        } else {
+            List<Iterator<Long>> sources = new ArrayList<>(driver.size());
+            for (Posting posting : driver) {
+                sources.add((after != null ? posting.ids.tailSet(after, false) : posting.ids).iterator());
+            }
+            candidates = mergeAscending(sources);
+        }
+        
+        List<Car> page = new ArrayList<>(Math.min(limit, 1024));
+        while (page.size() < limit && candidates.hasNext()) {
+            Car car = carStorage.get(candidates.next());
+            if (car != null
+                    && (brandKey == null || car.getBrand().toLowerCase(Locale.ROOT).equals(brandKey))
+                    && (prefixKey == null || car.getModel().toLowerCase(Locale.ROOT).startsWith(prefixKey))
+                    && car.getYear() >= lowYear && car.getYear() <= highYear) {
+                page.add(car);
+            }
+        }
+        logger.debug("Search matched {} cars after ID: {}", page.size(), after);
+        return page;
+    }
+    
     /**
      * Get the total number of cars in the repository
      * @return Count of cars
      */
     public long count() {
-        return carStorage.size();
+        return carCount.get();
     }
     
     /**
@@ -79,10 +248,18 @@ public class CarRepository {
      * @return true if a matching car exists, false otherwise
      */
     public boolean existsByBrandAndModelAndYear(String brand, String model, int year) {
-        return carStorage.values().stream()
-            .anyMatch(car -> car.getBrand().equalsIgnoreCase(brand)
-                && car.getModel().equalsIgnoreCase(model)
-                && car.getYear() == year);
+        return naturalKeyIndex.containsKey(naturalKey(brand, model, year));
+    }
+    
+    /**
+     * Build the case-folded uniqueness key for a car
+     * @param brand Car brand
+     * @param model Car model
+     * @param year Car year
+     * @return Composite key
+     */
+    private static String naturalKey(String brand, String model, int year) {
+        return brand.toLowerCase(Locale.ROOT) + '\u0000' + model.toLowerCase(Locale.ROOT) + '\u0000' + year;
     }
     
     /**
@@ -90,6 +267,79 @@ public class CarRepository {
      */
     public void clear() {
         carStorage.clear();
+        naturalKeyIndex.clear();
+        brandIndex.clear();
+        modelIndex.clear();
+        yearIndex.clear();
+        carCount.set(0);
         logger.info("Cleared all cars from repository");
     }
+    
+    /**
+     * Add a newly stored car to the search indexes
+     */
+    private void index(Car car) {
+        brandIndex.computeIfAbsent(car.getBrand().toLowerCase(Locale.ROOT), key -> new Posting()).add(car.getId());
+        modelIndex.computeIfAbsent(car.getModel().toLowerCase(Locale.ROOT), key -> new Posting()).add(car.getId());
+        yearIndex.computeIfAbsent(car.getYear(), key -> new Posting()).add(car.getId());
+    }
+    
+    private static long sizeOf(List<Posting> postings) {
+        long size = 0;
+        for (Posting posting : postings) {
+            size += posting.size.get();
+        }
+        return size;
+    }
+    
+    /**
+     * Merge ascending ID iterators into one ascending iterator
+     */
+    private static Iterator<Long> mergeAscending(List<Iterator<Long>> sources) {
+        if (sources.size() == 1) {
+            return sources.get(0);
+        }
+        PriorityQueue<Map.Entry<Long, Iterator<Long>>> heads =
+            new PriorityQueue<>(Math.max(1, sources.size()), Map.Entry.comparingByKey());
+        for (Iterator<Long> source : sources) {
+            if (source.hasNext()) {
+                heads.add(new AbstractMap.SimpleEntry<>(source.next(), source));
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+            
+            @Override
+            public Long next() {
+                Map.Entry<Long, Iterator<Long>> head = heads.poll();
+                if (head == null) {
+                    throw new NoSuchElementException();
+                }
+                Iterator<Long> source = head.getValue();
+                if (source.hasNext()) {
+                    heads.add(new AbstractMap.SimpleEntry<>(source.next(), source));
+                }
+                return head.getKey();
+            }
+        };
+    }
+    
+    /**
+     * IDs of the cars sharing one index key, with a size counter because
+     * ConcurrentSkipListSet.size() walks the whole set
+     */
+    private static final class Posting {
+        
+        private final ConcurrentSkipListSet<Long> ids = new ConcurrentSkipListSet<>();
+        private final AtomicInteger size = new AtomicInteger();
+        
+        void add(Long id) {
+            if (ids.add(id)) {
+                size.incrementAndGet();
+            }
+        }
+    }
 }
@@ -0,0 +1,243 @@
+package com.carmanagement.repository;
+
+import com.carmanagement.model.Car;
+import com.carmanagement.model.FuelAggregate;
+import com.carmanagement.model.FuelEntry;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Columnar fuel entry store
+ * Keeps each car's readings in growable primitive arrays (one per field) and
+ * materializes FuelEntry objects only when they are read
+ * Entries of a car must be appended in increasing odometer order, which
+ * FuelService guarantees under the car's write lock
+ */
+public class ColumnarFuelEntryStore implements FuelEntryStore {
+    
+    private static final int INITIAL_CAPACITY = 8;
+    
+    private final ConcurrentHashMap<Long, CarColumns> columnsByCar = new ConcurrentHashMap<>();
+    private final AtomicLong idGenerator = new AtomicLong(1L);
+    private final AtomicLong entryCount = new AtomicLong();
+    
+    @Override
+    public void assignId(FuelEntry entry) {
+        if (entry.getId() == 0) {
+            entry.setId(idGenerator.getAndIncrement());
+        }
+    }
+    
+    @Override
+    public FuelEntry save(FuelEntry entry) {
+        Car car = entry.getCar();
+        if (car == null || car.getId() == 0) {
+            throw new IllegalArgumentException("Fuel entry must belong to a persisted car");
+        }
+        if (entry.getId() == 0) {
+            entry.setId(idGenerator.getAndIncrement());
+        } else {
+            idGenerator.accumulateAndGet(entry.getId() + 1, Math::max);
+        }
+        columnsByCar.computeIfAbsent(car.getId(), id -> new CarColumns(car)).append(entry);
+        entryCount.incrementAndGet();
+        return entry;
+    }
+    
+    /**
+     * Append a batch under a single acquisition of the car's column monitor
+     */
+    @Override
+    public void saveAll(List<FuelEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Car car = entries.get(0).getCar();
+        if (car == null || car.getId() == 0) {
+            throw new IllegalArgumentException("Fuel entry must belong to a persisted car");
+        }
+        for (FuelEntry entry : entries) {
+            if (entry.getId() == 0) {
+                entry.setId(idGenerator.getAndIncrement());
+            } else {
+                idGenerator.accumulateAndGet(entry.getId() + 1, Math::max);
+            }
+        }
+        columnsByCar.computeIfAbsent(car.getId(), id -> new CarColumns(car)).appendAll(entries);
+        entryCount.addAndGet(entries.size());
+    }
+    
+    @Override
+    public List<FuelEntry> findByCarId(Long carId) {
+        List<FuelEntry> entries = new ArrayList<>();
+        CarColumns columns = columnsByCar.get(carId);
+        if (columns != null) {
+            columns.iterator().forEachRemaining(entries::add);
+        }
+        return entries;
+    }
+    
+    @Override
+    public Collection<FuelEntry> entriesOf(Long carId) {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<FuelEntry> iterator() {
+                CarColumns columns = columnsByCar.get(carId);
+                return columns != null ? columns.iterator() : Collections.emptyIterator();
+            }
+            
+            @Override
+            public int size() {
+                CarColumns columns = columnsByCar.get(carId);
+                return columns != null ? columns.size : 0;
+            }
+        };
+    }
+    
+    @Override
+    public FuelAggregate aggregateByCarId(Long carId) {
+        CarColumns columns = columnsByCar.get(carId);
+        return columns != null ? columns.aggregate() : FuelAggregate.EMPTY;
+    }
+    
+    @Override
+    public List<FuelEntry> findAll() {
+        List<FuelEntry> entries = new ArrayList<>();
+        columnsByCar.values().forEach(columns -> columns.iterator().forEachRemaining(entries::add));
+        entries.sort(Comparator.comparingLong(FuelEntry::getTimestampMillis));
+        return entries;
+    }
+    
+    @Override
+    public long count() {
+        return entryCount.get();
+    }
+    
+    @Override
+    public void clear() {
+        columnsByCar.clear();
+        entryCount.set(0);
+    }
+    
+    /**
+     * Per-car column set
+     * A single writer appends under the monitor and publishes through the
+     * volatile size; readers never lock and only look at indexes below size
+     * Grown columns are published through their volatile fields before size,
+     * and readers take the column references once, after reading size, so a
+     * reader that sees a size also sees columns holding every entry below it
+     */
+    private static final class CarColumns {
+        
+        private final Car car;
+        private volatile long[] ids = new long[INITIAL_CAPACITY];
+        private volatile double[] liters = new double[INITIAL_CAPACITY];
+        private volatile double[] prices = new double[INITIAL_CAPACITY];
+        private volatile int[] odometers = new int[INITIAL_CAPACITY];
+        private volatile long[] timestamps = new long[INITIAL_CAPACITY];
+        private volatile int size;
+        
+        CarColumns(Car car) {
+            this.car = car;
+        }
+        
+        synchronized void appendAll(List<FuelEntry> entries) {
+            for (FuelEntry entry : entries) {
+                append(entry);
+            }
+        }
+        
+        synchronized void append(FuelEntry entry) {
+            int n = size;
+            long[] idColumn = ids;
+            double[] litersColumn = liters;
+            double[] pricesColumn = prices;
+            int[] odometerColumn = odometers;
+            long[] timestampColumn = timestamps;
+            if (n > 0 && entry.getOdometer() <= odometerColumn[n - 1]) {
+                throw new IllegalArgumentException(
+                    "Fuel entries must be appended in increasing odometer order, got: " + entry.getOdometer());
+            }
+            if (n == idColumn.length) {
+                int capacity = n + (n >> 1);
+                idColumn = Arrays.copyOf(idColumn, capacity);
+                litersColumn = Arrays.copyOf(litersColumn, capacity);
+                pricesColumn = Arrays.copyOf(pricesColumn, capacity);
+                odometerColumn = Arrays.copyOf(odometerColumn, capacity);
+                timestampColumn = Arrays.copyOf(timestampColumn, capacity);
+                // Publish the copies before size can cover the slots they add
+                ids = idColumn;
+                liters = litersColumn;
+                prices = pricesColumn;
+                odometers = odometerColumn;
+                timestamps = timestampColumn;
+            }
+            idColumn[n] = entry.getId();
+            litersColumn[n] = entry.getLiters();
+            pricesColumn[n] = entry.getPrice();
+            odometerColumn[n] = entry.getOdometer();
+            timestampColumn[n] = entry.getTimestampMillis();
+            size = n + 1;
+        }
+        
+        FuelAggregate aggregate() {
+            int n = size;
+            if (n == 0) {
+                return FuelAggregate.EMPTY;
+            }
+            double[] litersColumn = liters;
+            double[] pricesColumn = prices;
+            double totalLiters = 0.0;
+            double totalCost = 0.0;
+            for (int i = 0; i < n; i++) {
+                totalLiters += litersColumn[i];
+                totalCost += pricesColumn[i];
+            }
+            int[] odometerColumn = odometers;
+            return new FuelAggregate(totalLiters, totalCost, odometerColumn[0], odometerColumn[n - 1], n);
+        }
+        
+        Iterator<FuelEntry> iterator() {
+            int n = size;
+            long[] idColumn = ids;
+            double[] litersColumn = liters;
+            double[] pricesColumn = prices;
+            int[] odometerColumn = odometers;
+            long[] timestampColumn = timestamps;
+            return new Iterator<>() {
+                private int next;
+                
+                @Override
+                public boolean hasNext() {
+                    return next < n;
+                }
+                
+                @Override
+                public FuelEntry next() {
+                    if (next >= n) {
+                        throw new NoSuchElementException();
+                    }
+                    int index = next++;
+                    FuelEntry entry = new FuelEntry();
+                    entry.setId(idColumn[index]);
+                    entry.setLiters(litersColumn[index]);
+                    entry.setPrice(pricesColumn[index]);
+                    entry.setOdometer(odometerColumn[index]);
+                    entry.setTimestampMillis(timestampColumn[index]);
+                    entry.setCar(car);
+                    return entry;
+                }
+            };
+        }
+    }
+}
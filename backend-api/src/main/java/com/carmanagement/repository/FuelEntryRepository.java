@@ -1,67 +1,161 @@
 package com.carmanagement.repository;
 
+import com.carmanagement.model.Car;
+import com.carmanagement.model.FuelAggregate;
 import com.carmanagement.model.FuelEntry;
+import com.carmanagement.persistence.MutationLog;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
-import java.util.Comparator;
+import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * In-memory repository for FuelEntry entities
- * Maintains fuel entries with automatic ID generation
+ * Maintains fuel entries with automatic ID generation and a per-car
+ * secondary index ordered by odometer reading
+ * Storage is delegated to the FuelEntryStore selected by fuel.storage.mode
  */
 @Repository
 public class FuelEntryRepository {
     
     private static final Logger logger = LoggerFactory.getLogger(FuelEntryRepository.class);
     
-    private final ConcurrentHashMap<Long, FuelEntry> fuelEntryStorage = new ConcurrentHashMap<>();
-    private final AtomicLong idGenerator = new AtomicLong(1L);
+    private final FuelEntryStore store;
+    private volatile MutationLog mutationLog = MutationLog.NONE;
+    
+    @Autowired
+    public FuelEntryRepository(FuelEntryStore store) {
+        this.store = store;
+    }
     
     /**
      * Store a fuel entry record
+     * The entry is logged before it is stored, so readers never see an
+     * entry whose log append failed; both happen in one publish step, so a
+     * snapshot cannot miss a logged entry
      * @param entry FuelEntry to save
      * @return Saved fuel entry with assigned ID
      */
     public FuelEntry save(FuelEntry entry) {
-        if (entry.getId() == null) {
-            entry.setId(idGenerator.getAndIncrement());
+        if (!store.isDurable()) {
+            MutationLog log = mutationLog;
+            log.publish(() -> {
+                store.assignId(entry);
+                log.fuelEntrySaved(entry);
+                store.save(entry);
+            });
+        } else {
+            store.save(entry);
         }
-        fuelEntryStorage.put(entry.getId(), entry);
         logger.info("Saved fuel entry with ID: {} - {}L at {} (odometer: {}km)", 
             entry.getId(), entry.getLiters(), entry.getPrice(), entry.getOdometer());
         return entry;
     }
     
+    /**
+     * Store a batch of fuel entries of one car, in odometer order
+     * Logged as one group before any entry is stored
+     * @param entries Fuel entries to save
+     * @return Saved fuel entries with assigned IDs
+     */
+    public List<FuelEntry> saveAll(List<FuelEntry> entries) {
+        if (!store.isDurable()) {
+            MutationLog log = mutationLog;
+            log.publish(() -> {
+                entries.forEach(store::assignId);
+                log.fuelEntriesSaved(entries);
+                store.saveAll(entries);
+            });
+        } else {
+            store.saveAll(entries);
+        }
+        logger.info("Saved batch of {} fuel entries", entries.size());
+        return entries;
+    }
+    
+    /**
+     * Put back a fuel entry recovered from durable storage, keeping its ID and without logging it again
+     * @param entry Recovered fuel entry associated with its car
+     */
+    public void restore(FuelEntry entry) {
+        store.save(entry);
+    }
+    
+    /**
+     * Attach a recovered car to the entries a durable store kept for it
+     * @param car Recovered car
+     */
+    public void restoreCar(Car car) {
+        store.restoreCar(car);
+    }
+    
+    /**
+     * IDs of cars a durable store kept entries for but that were not recovered
+     * @return Car IDs without a recovered car
+     */
+    public Set<Long> orphanedCarIds() {
+        return store.orphanedCarIds();
+    }
+    
+    /**
+     * Whether fuel entries are persisted by the store itself rather than the mutation log
+     * @return true for durable storage backends
+     */
+    public boolean isDurable() {
+        return store.isDurable();
+    }
+    
+    /**
+     * Attach the log that records every saved fuel entry
+     * Ignored for durable stores, which persist entries themselves
+     * @param mutationLog Mutation log, MutationLog.NONE to stop logging
+     */
+    public void setMutationLog(MutationLog mutationLog) {
+        this.mutationLog = mutationLog;
+    }
+    
     /**
      * Retrieve car-specific fuel entries sorted by odometer reading
+     * Served from the per-car index, so cost is proportional to the car's own history
      * @param carId ID of the car
      * @return List of fuel entries for the specified car, sorted by odometer
      */
     public List<FuelEntry> findByCarId(Long carId) {
-        List<FuelEntry> entries = fuelEntryStorage.values().stream()
-            .filter(entry -> entry.getCar() != null && 
-                           carId.equals(entry.getCar().getId()))
-            .sorted(Comparator.comparing(FuelEntry::getOdometer))
-            .collect(Collectors.toList());
+        List<FuelEntry> entries = store.findByCarId(carId);
         
         logger.debug("Retrieved {} fuel entries for car ID: {}", entries.size(), carId);
         return entries;
     }
     
+    /**
+     * Live read-only view of a car's fuel entries, sorted by odometer reading
+     * Used as the fuelEntries property of Car so entries are not retained twice
+     * @param carId ID of the car
+     * @return Collection view of the car's fuel entries
+     */
+    public Collection<FuelEntry> entriesOf(Long carId) {
+        return store.entriesOf(carId);
+    }
+    
+    /**
+     * Fold a car's stored entries into running totals
+     * @param carId ID of the car
+     * @return Aggregate over the car's fuel entries
+     */
+    public FuelAggregate aggregateByCarId(Long carId) {
+        return store.aggregateByCarId(carId);
+    }
+    
     /**
      * Get all fuel entries in the system
      * @return List of all fuel entries
      */
     public List<FuelEntry> findAll() {
-        return fuelEntryStorage.values().stream()
-            .sorted(Comparator.comparing(FuelEntry::getTimestamp))
-            .collect(Collectors.toList());
+        return store.findAll();
     }
     
     /**
@@ -69,14 +163,14 @@ public class FuelEntryRepository {
      * @return Count of fuel entries
      */
     public long count() {
-        return fuelEntryStorage.size();
+        return store.count();
     }
     
     /**
      * Clear all fuel entries (useful for testing)
      */
     public void clear() {
-        fuelEntryStorage.clear();
+        store.clear();
         logger.info("Cleared all fuel entries from repository");
     }
 }
@@ -0,0 +1,103 @@
+package com.carmanagement.repository;
+
+import com.carmanagement.model.Car;
+import com.carmanagement.model.FuelAggregate;
+import com.carmanagement.model.FuelEntry;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Storage backend for FuelEntry records
+ * Implementations keep each car's entries ordered by odometer reading
+ */
+public interface FuelEntryStore {
+    
+    /**
+     * Whether saved entries survive a restart without the write-ahead log
+     * @return true if the store persists entries itself
+     */
+    default boolean isDurable() {
+        return false;
+    }
+    
+    /**
+     * Attach a car recovered after a restart to the entries the store kept for it
+     * Only meaningful for durable stores
+     * @param car Recovered car
+     */
+    default void restoreCar(Car car) {
+    }
+    
+    /**
+     * IDs of cars the store kept entries for but that no recovered car was attached to
+     * @return Car IDs, empty for stores that do not survive restarts
+     */
+    default Set<Long> orphanedCarIds() {
+        return Set.of();
+    }
+    
+    /**
+     * Assign the next ID to a fuel entry that has none, without storing it
+     * Lets the entry be logged before it becomes visible in the store
+     * @param entry Fuel entry associated with a persisted car
+     */
+    void assignId(FuelEntry entry);
+    
+    /**
+     * Store a fuel entry, assigning an ID if it has none
+     * @param entry Fuel entry associated with a persisted car
+     * @return Stored fuel entry
+     */
+    FuelEntry save(FuelEntry entry);
+    
+    /**
+     * Store a batch of fuel entries belonging to the same car, in odometer order
+     * @param entries Fuel entries to save
+     */
+    default void saveAll(List<FuelEntry> entries) {
+        for (FuelEntry entry : entries) {
+            save(entry);
+        }
+    }
+    
+    /**
+     * Snapshot of a car's fuel entries sorted by odometer reading
+     * @param carId ID of the car
+     * @return List of fuel entries, empty if the car has none
+     */
+    List<FuelEntry> findByCarId(Long carId);
+    
+    /**
+     * Live read-only view of a car's fuel entries sorted by odometer reading
+     * Entries are materialized lazily while the view is iterated
+     * @param carId ID of the car
+     * @return Collection view reflecting entries added later
+     */
+    Collection<FuelEntry> entriesOf(Long carId);
+    
+    /**
+     * Fold a car's stored entries into running totals
+     * @param carId ID of the car
+     * @return Aggregate over the car's entries
+     */
+    FuelAggregate aggregateByCarId(Long carId);
+    
+    /**
+     * All fuel entries in the store
+     * @return List of all fuel entries
+     */
+    List<FuelEntry> findAll();
+    
+    /**
+     * Number of stored fuel entries
+     * @return Count of fuel entries
+     */
+    long count();
+    
+    /**
+     * Remove all fuel entries
+     */
+    void clear();
+}
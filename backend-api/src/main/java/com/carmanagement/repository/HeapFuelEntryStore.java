@@ -0,0 +1,111 @@
+package com.carmanagement.repository;
+
+import com.carmanagement.model.FuelAggregate;
+import com.carmanagement.model.FuelEntry;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Heap-resident fuel entry store
+ * Keeps each car's FuelEntry objects once, in an append-only list in odometer
+ * order; the list is also the car's fuelEntries view, so readers serializing
+ * a car never lock and never see a half-written list
+ * Appends for one car must be serialized by the caller (the car's write lock)
+ */
+public class HeapFuelEntryStore implements FuelEntryStore {
+    
+    private final ConcurrentHashMap<Long, AppendOnlyList<FuelEntry>> entriesByCar = new ConcurrentHashMap<>();
+    private final AtomicLong idGenerator = new AtomicLong(1L);
+    private final AtomicLong entryCount = new AtomicLong();
+    
+    @Override
+    public void assignId(FuelEntry entry) {
+        if (entry.getId() == 0) {
+            entry.setId(idGenerator.getAndIncrement());
+        }
+    }
+    
+    @Override
+    public FuelEntry save(FuelEntry entry) {
+        if (entry.getCar() == null || entry.getCar().getId() == 0) {
+            throw new IllegalArgumentException("Fuel entry must belong to a stored car");
+        }
+        AppendOnlyList<FuelEntry> entries =
+            entriesByCar.computeIfAbsent(entry.getCar().getId(), id -> new AppendOnlyList<>());
+        FuelEntry last = entries.last();
+        if (last != null && entry.getOdometer() <= last.getOdometer()) {
+            throw new IllegalArgumentException(
+                "Fuel entries must be appended in increasing odometer order, got: " + entry.getOdometer());
+        }
+        if (entry.getId() == 0) {
+            entry.setId(idGenerator.getAndIncrement());
+        } else {
+            idGenerator.accumulateAndGet(entry.getId() + 1, Math::max);
+        }
+        entries.add(entry);
+        entryCount.incrementAndGet();
+        return entry;
+    }
+    
+    @Override
+    public List<FuelEntry> findByCarId(Long carId) {
+        return new ArrayList<>(carEntries(carId));
+    }
+    
+    @Override
+    public Collection<FuelEntry> entriesOf(Long carId) {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<FuelEntry> iterator() {
+                return carEntries(carId).iterator();
+            }
+            
+            @Override
+            public int size() {
+                return carEntries(carId).size();
+            }
+        };
+    }
+    
+    @Override
+    public FuelAggregate aggregateByCarId(Long carId) {
+        FuelAggregate aggregate = FuelAggregate.EMPTY;
+        for (FuelEntry entry : carEntries(carId)) {
+            aggregate = aggregate.plus(entry);
+        }
+        return aggregate;
+    }
+    
+    @Override
+    public List<FuelEntry> findAll() {
+        return entriesByCar.values().stream()
+            .flatMap(List::stream)
+            .sorted(Comparator.comparingLong(FuelEntry::getTimestampMillis))
+            .collect(Collectors.toList());
+    }
+    
+    @Override
+    public long count() {
+        return entryCount.get();
+    }
+    
+    @Override
+    public void clear() {
+        entriesByCar.clear();
+        entryCount.set(0);
+    }
+    
+    private List<FuelEntry> carEntries(Long carId) {
+        AppendOnlyList<FuelEntry> entries = entriesByCar.get(carId);
+        return entries != null ? entries : Collections.emptyList();
+    }
+}
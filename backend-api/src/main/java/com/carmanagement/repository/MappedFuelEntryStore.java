@@ -0,0 +1,413 @@
+package com.carmanagement.repository;
+
+import com.carmanagement.model.Car;
+import com.carmanagement.model.FuelAggregate;
+import com.carmanagement.model.FuelEntry;
+import com.carmanagement.persistence.FsyncPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Memory-mapped fuel entry store
+ * Keeps fixed-width fuel records in memory-mapped segment files outside the
+ * Java heap; only a per-car array of record numbers lives on-heap
+ * Records survive restarts: the per-car indexes are rebuilt by scanning the
+ * committed records of each segment on startup. Records only carry the car
+ * ID, so the cars themselves must come back through durable mode, which
+ * attaches each recovered car with restoreCar
+ * Written records reach the device according to the fsync policy: forced
+ * per record, by a background force every interval, or on close only
+ *
+ * Record layout (48 bytes):
+ * carId(8) id(8) liters(8) price(8) timestampMillis(8) odometer(4) commitMarker(4)
+ */
+public class MappedFuelEntryStore implements FuelEntryStore, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedFuelEntryStore.class);
+
+    private static final int RECORD_SIZE = 48;
+    private static final int CAR_ID_OFFSET = 0;
+    private static final int ID_OFFSET = 8;
+    private static final int LITERS_OFFSET = 16;
+    private static final int PRICE_OFFSET = 24;
+    private static final int TIMESTAMP_OFFSET = 32;
+    private static final int ODOMETER_OFFSET = 40;
+    private static final int MARKER_OFFSET = 44;
+    private static final int COMMITTED = 0x46554531;
+    private static final int INITIAL_CAPACITY = 8;
+    private static final String SEGMENT_PREFIX = "fuel-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final FsyncPolicy fsyncPolicy;
+    private ScheduledExecutorService forceScheduler;
+    private final Object segmentLock = new Object();
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+
+    private final ConcurrentHashMap<Long, CarRecords> recordsByCar = new ConcurrentHashMap<>();
+    private final AtomicLong nextRecord = new AtomicLong();
+    private final AtomicLong idGenerator = new AtomicLong(1L);
+    private final AtomicLong entryCount = new AtomicLong();
+
+    /**
+     * Open (or create) a store over a directory of segment files
+     * @param directory Directory holding the segment files
+     * @param recordsPerSegment Number of fixed-width records per segment file
+     * @param fsyncPolicy When written records are forced to the storage device
+     * @param fsyncIntervalMs Background force interval for FsyncPolicy.INTERVAL
+     * @throws IOException if existing segments cannot be mapped
+     */
+    public MappedFuelEntryStore(Path directory, int recordsPerSegment,
+                                FsyncPolicy fsyncPolicy, long fsyncIntervalMs) throws IOException {
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+        this.fsyncPolicy = fsyncPolicy;
+        Files.createDirectories(directory);
+        loadSegments();
+
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            forceScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "mapped-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            forceScheduler.scheduleWithFixedDelay(
+                this::force, fsyncIntervalMs, fsyncIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public boolean isDurable() {
+        return true;
+    }
+
+    @Override
+    public void restoreCar(Car car) {
+        CarRecords records = recordsByCar.get(car.getId());
+        if (records != null) {
+            records.car = car;
+        }
+    }
+
+    @Override
+    public Set<Long> orphanedCarIds() {
+        return recordsByCar.entrySet().stream()
+            .filter(entry -> entry.getValue().car == null)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toSet());
+    }
+
+    @Override
+    public void assignId(FuelEntry entry) {
+        if (entry.getId() == 0) {
+            entry.setId(idGenerator.getAndIncrement());
+        }
+    }
+
+    @Override
+    public FuelEntry save(FuelEntry entry) {
+        Car car = entry.getCar();
+        if (car == null || car.getId() == 0) {
+            throw new IllegalArgumentException("Fuel entry must belong to a persisted car");
+        }
+        if (entry.getId() == 0) {
+            entry.setId(idGenerator.getAndIncrement());
+        } else {
+            idGenerator.accumulateAndGet(entry.getId() + 1, Math::max);
+        }
+        CarRecords records = recordsByCar.computeIfAbsent(car.getId(), id -> new CarRecords());
+        records.car = car;
+        records.append(this, entry);
+        entryCount.incrementAndGet();
+        return entry;
+    }
+
+    @Override
+    public List<FuelEntry> findByCarId(Long carId) {
+        List<FuelEntry> entries = new ArrayList<>();
+        CarRecords records = recordsByCar.get(carId);
+        if (records != null) {
+            records.iterator(this).forEachRemaining(entries::add);
+        }
+        return entries;
+    }
+
+    @Override
+    public Collection<FuelEntry> entriesOf(Long carId) {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<FuelEntry> iterator() {
+                CarRecords records = recordsByCar.get(carId);
+                return records != null ? records.iterator(MappedFuelEntryStore.this) : Collections.emptyIterator();
+            }
+
+            @Override
+            public int size() {
+                CarRecords records = recordsByCar.get(carId);
+                return records != null ? records.size : 0;
+            }
+        };
+    }
+
+    /**
+     * Aggregate directly over the mapped records without materializing entries
+     */
+    @Override
+    public FuelAggregate aggregateByCarId(Long carId) {
+        CarRecords records = recordsByCar.get(carId);
+        int n = records != null ? records.size : 0;
+        if (n == 0) {
+            return FuelAggregate.EMPTY;
+        }
+        int[] recordNumbers = records.recordNumbers;
+        double totalLiters = 0.0;
+        double totalCost = 0.0;
+        for (int i = 0; i < n; i++) {
+            int record = recordNumbers[i];
+            MappedByteBuffer segment = segment(record);
+            int base = offset(record);
+            totalLiters += segment.getDouble(base + LITERS_OFFSET);
+            totalCost += segment.getDouble(base + PRICE_OFFSET);
+        }
+        int minOdometer = odometerAt(recordNumbers[0]);
+        int maxOdometer = odometerAt(recordNumbers[n - 1]);
+        return new FuelAggregate(totalLiters, totalCost, minOdometer, maxOdometer, n);
+    }
+
+    @Override
+    public List<FuelEntry> findAll() {
+        List<FuelEntry> entries = new ArrayList<>();
+        recordsByCar.values().forEach(records -> records.iterator(this).forEachRemaining(entries::add));
+        entries.sort(Comparator.comparingLong(FuelEntry::getTimestampMillis));
+        return entries;
+    }
+
+    @Override
+    public long count() {
+        return entryCount.get();
+    }
+
+    @Override
+    public void clear() {
+        synchronized (segmentLock) {
+            long used = nextRecord.get();
+            for (long record = 0; record < used; record++) {
+                segment((int) record).putInt(offset((int) record) + MARKER_OFFSET, 0);
+            }
+            nextRecord.set(0);
+            recordsByCar.clear();
+            entryCount.set(0);
+        }
+    }
+
+    /**
+     * Stop background forcing and flush the mapped segments to the storage device
+     */
+    @Override
+    public void close() {
+        if (forceScheduler != null) {
+            forceScheduler.shutdownNow();
+        }
+        force();
+        logger.info("Flushed {} fuel record segments in {}", segments.length, directory);
+    }
+
+    /**
+     * Force every mapped segment to the storage device
+     */
+    public void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Write a record into its slot; the commit marker is written last
+     * @return Record number of the written record
+     */
+    private int writeRecord(long carId, FuelEntry entry) {
+        long claimed = nextRecord.getAndIncrement();
+        if (claimed > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Mapped fuel entry store is full");
+        }
+        int record = (int) claimed;
+        MappedByteBuffer segment = segment(record);
+        int base = offset(record);
+        segment.putLong(base + CAR_ID_OFFSET, carId);
+        segment.putLong(base + ID_OFFSET, entry.getId());
+        segment.putDouble(base + LITERS_OFFSET, entry.getLiters());
+        segment.putDouble(base + PRICE_OFFSET, entry.getPrice());
+        segment.putLong(base + TIMESTAMP_OFFSET, entry.getTimestampMillis());
+        segment.putInt(base + ODOMETER_OFFSET, entry.getOdometer());
+        segment.putInt(base + MARKER_OFFSET, COMMITTED);
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            segment.force(base, RECORD_SIZE);
+        }
+        return record;
+    }
+
+    private FuelEntry materialize(int record, Car car) {
+        MappedByteBuffer segment = segment(record);
+        int base = offset(record);
+        FuelEntry entry = new FuelEntry();
+        entry.setId(segment.getLong(base + ID_OFFSET));
+        entry.setLiters(segment.getDouble(base + LITERS_OFFSET));
+        entry.setPrice(segment.getDouble(base + PRICE_OFFSET));
+        entry.setOdometer(segment.getInt(base + ODOMETER_OFFSET));
+        entry.setTimestampMillis(segment.getLong(base + TIMESTAMP_OFFSET));
+        entry.setCar(car);
+        return entry;
+    }
+
+    private int odometerAt(int record) {
+        return segment(record).getInt(offset(record) + ODOMETER_OFFSET);
+    }
+
+    private int offset(int record) {
+        return (record % recordsPerSegment) * RECORD_SIZE;
+    }
+
+    /**
+     * Segment holding a record, mapping a new segment file when the record is past the end
+     */
+    private MappedByteBuffer segment(int record) {
+        int index = record / recordsPerSegment;
+        MappedByteBuffer[] current = segments;
+        if (index < current.length) {
+            return current[index];
+        }
+        synchronized (segmentLock) {
+            while (segments.length <= index) {
+                MappedByteBuffer[] grown = Arrays.copyOf(segments, segments.length + 1);
+                grown[segments.length] = mapSegment(segments.length);
+                segments = grown;
+            }
+            return segments[index];
+        }
+    }
+
+    private MappedByteBuffer mapSegment(int index) {
+        Path file = directory.resolve(SEGMENT_PREFIX + index + SEGMENT_SUFFIX);
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * RECORD_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map fuel record segment " + file, e);
+        }
+    }
+
+    /**
+     * Map the existing segment files and rebuild the per-car indexes from committed records
+     * Slots claimed but never committed before a crash are skipped
+     */
+    private void loadSegments() {
+        int segmentCount = 0;
+        while (Files.exists(directory.resolve(SEGMENT_PREFIX + segmentCount + SEGMENT_SUFFIX))) {
+            segmentCount++;
+        }
+        long end = 0;
+        for (int index = 0; index < segmentCount; index++) {
+            for (int slot = 0; slot < recordsPerSegment; slot++) {
+                int record = index * recordsPerSegment + slot;
+                MappedByteBuffer segment = segment(record);
+                int base = offset(record);
+                if (segment.getInt(base + MARKER_OFFSET) != COMMITTED) {
+                    continue;
+                }
+                long carId = segment.getLong(base + CAR_ID_OFFSET);
+                idGenerator.accumulateAndGet(segment.getLong(base + ID_OFFSET) + 1, Math::max);
+                recordsByCar.computeIfAbsent(carId, id -> new CarRecords()).add(record);
+                entryCount.incrementAndGet();
+                end = record + 1L;
+            }
+        }
+        nextRecord.set(end);
+        logger.info("Loaded {} fuel records for {} cars from {} segments in {}",
+            entryCount.get(), recordsByCar.size(), segmentCount, directory);
+    }
+
+    /**
+     * Per-car on-heap index of record numbers in odometer order
+     * A single writer appends under the monitor and publishes through the
+     * volatile size; readers never lock and only look at indexes below size
+     * A grown array is published through its volatile field before size, and
+     * readers read size before the array, so a reader that sees a size also
+     * sees an array holding every record number below it
+     */
+    private static final class CarRecords {
+
+        private volatile Car car;
+        private volatile int[] recordNumbers = new int[INITIAL_CAPACITY];
+        private volatile int size;
+
+        synchronized void append(MappedFuelEntryStore store, FuelEntry entry) {
+            int n = size;
+            if (n > 0 && entry.getOdometer() <= store.odometerAt(recordNumbers[n - 1])) {
+                throw new IllegalArgumentException(
+                    "Fuel entries must be appended in increasing odometer order, got: " + entry.getOdometer());
+            }
+            add(store.writeRecord(entry.getCar().getId(), entry));
+        }
+
+        synchronized void add(int record) {
+            int n = size;
+            int[] numbers = recordNumbers;
+            if (n == numbers.length) {
+                numbers = Arrays.copyOf(numbers, n + (n >> 1));
+                // Publish the copy before size can cover the slot it adds
+                recordNumbers = numbers;
+            }
+            numbers[n] = record;
+            size = n + 1;
+        }
+
+        Iterator<FuelEntry> iterator(MappedFuelEntryStore store) {
+            int n = size;
+            int[] snapshot = recordNumbers;
+            Car owner = car;
+            return new Iterator<>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < n;
+                }
+
+                @Override
+                public FuelEntry next() {
+                    if (next >= n) {
+                        throw new NoSuchElementException();
+                    }
+                    return store.materialize(snapshot[next++], owner);
+                }
+            };
+        }
+    }
+}
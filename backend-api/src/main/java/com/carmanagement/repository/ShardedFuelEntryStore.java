@@ -0,0 +1,125 @@
+package com.carmanagement.repository;
+
+import com.carmanagement.model.FuelAggregate;
+import com.carmanagement.model.FuelEntry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sharded heap fuel entry store
+ * Partitions cars and their entries by car ID across independent heap
+ * stores, each with its own ID range: shard s of N hands out IDs s + 1,
+ * s + 1 + N, s + 1 + 2N, ... from its own counter, so no counter or map is
+ * shared between shards. Reads go straight to the owning shard without locking
+ * Meant to be paired with ShardedWriteExecutors, which routes each car's
+ * writes to the single writer thread of the same shard
+ */
+public class ShardedFuelEntryStore implements FuelEntryStore {
+
+    private final HeapFuelEntryStore[] shards;
+    private final AtomicLong[] idGenerators;
+
+    /**
+     * Create a store with a fixed number of shards
+     * @param shardCount Number of shards
+     * @throws IllegalArgumentException if shardCount is not positive
+     */
+    public ShardedFuelEntryStore(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive, got: " + shardCount);
+        }
+        shards = new HeapFuelEntryStore[shardCount];
+        idGenerators = new AtomicLong[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new HeapFuelEntryStore();
+            idGenerators[i] = new AtomicLong();
+        }
+    }
+
+    /**
+     * Shard owning a car
+     * @param carId ID of the car
+     * @param shardCount Number of shards
+     * @return Shard index in [0, shardCount)
+     */
+    public static int shardOf(long carId, int shardCount) {
+        return (int) Math.floorMod(carId, (long) shardCount);
+    }
+
+    @Override
+    public void assignId(FuelEntry entry) {
+        if (entry.getCar() == null || entry.getCar().getId() == 0) {
+            throw new IllegalArgumentException("Fuel entry must belong to a stored car");
+        }
+        if (entry.getId() == 0) {
+            int shard = shardOf(entry.getCar().getId(), shards.length);
+            entry.setId(idGenerators[shard].getAndIncrement() * shards.length + shard + 1);
+        }
+    }
+
+    @Override
+    public FuelEntry save(FuelEntry entry) {
+        if (entry.getCar() == null || entry.getCar().getId() == 0) {
+            throw new IllegalArgumentException("Fuel entry must belong to a stored car");
+        }
+        int shard = shardOf(entry.getCar().getId(), shards.length);
+        if (entry.getId() == 0) {
+            assignId(entry);
+        } else {
+            // Keep the residue class of a recovered ID from ever reissuing it
+            long id = entry.getId() - 1;
+            idGenerators[shardOf(id, shards.length)].accumulateAndGet(id / shards.length + 1, Math::max);
+        }
+        return shards[shard].save(entry);
+    }
+
+    @Override
+    public List<FuelEntry> findByCarId(Long carId) {
+        return shardFor(carId).findByCarId(carId);
+    }
+
+    @Override
+    public Collection<FuelEntry> entriesOf(Long carId) {
+        return shardFor(carId).entriesOf(carId);
+    }
+
+    @Override
+    public FuelAggregate aggregateByCarId(Long carId) {
+        return shardFor(carId).aggregateByCarId(carId);
+    }
+
+    @Override
+    public List<FuelEntry> findAll() {
+        List<FuelEntry> entries = new ArrayList<>();
+        for (HeapFuelEntryStore shard : shards) {
+            entries.addAll(shard.findAll());
+        }
+        entries.sort(Comparator.comparingLong(FuelEntry::getTimestampMillis));
+        return entries;
+    }
+
+    @Override
+    public long count() {
+        long count = 0;
+        for (HeapFuelEntryStore shard : shards) {
+            count += shard.count();
+        }
+        return count;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < shards.length; i++) {
+            shards[i].clear();
+            idGenerators[i].set(0);
+        }
+    }
+
+    private HeapFuelEntryStore shardFor(Long carId) {
+        return shards[shardOf(carId, shards.length)];
+    }
+}
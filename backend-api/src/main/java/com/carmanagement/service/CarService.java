@@ -2,8 +2,10 @@ package com.carmanagement.service;
 
 import com.carmanagement.dto.CarRequest;
 import com.carmanagement.exception.CarNotFoundException;
+import com.carmanagement.exception.DuplicateCarException;
 import com.carmanagement.model.Car;
 import com.carmanagement.repository.CarRepository;
+import com.carmanagement.repository.FuelEntryRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,10 +23,12 @@ public class CarService {
     private static final Logger logger = LoggerFactory.getLogger(CarService.class);
     
     private final CarRepository carRepository;
+    private final FuelEntryRepository fuelEntryRepository;
     
     @Autowired
-    public CarService(CarRepository carRepository) {
+    public CarService(CarRepository carRepository, FuelEntryRepository fuelEntryRepository) {
         this.carRepository = carRepository;
+        this.fuelEntryRepository = fuelEntryRepository;
     }
     
     /**
@@ -46,11 +50,10 @@ public class CarService {
         String model = request.getModel().trim();
         int year = request.getYear();
         
+        // (fast-path rejection; the repository claims the key atomically on save)
         if (carRepository.existsByBrandAndModelAndYear(brand, model, year)) {
             logger.warn("Car already exists: {} {} ({})", brand, model, year);
-            throw new IllegalArgumentException(
-                String.format("Car already exists: %s %s (%d)", brand, model, year)
-            );
+            throw new DuplicateCarException(brand, model, year);
         }
         
         // Convert DTO to entity
@@ -59,6 +62,9 @@ public class CarService {
         // Persist via repository
         Car savedCar = carRepository.save(car);
         
+        // Expose fuel entries through a live view of the fuel entry store
+        savedCar.setFuelEntries(fuelEntryRepository.entriesOf(savedCar.getId()));
+        
         logger.info("Successfully created car with ID: {}", savedCar.getId());
         return savedCar;
     }
@@ -75,6 +81,49 @@ public class CarService {
         return cars;
     }
     
+    /**
+     * Retrieve one page of cars ordered by ID
+     * 
+     * @param after Cursor: ID of the last car of the previous page, null for the first page
+     * @param limit Maximum number of cars on the page
+     * @return Cars of the page, plus one look-ahead car if more pages follow
+     * @throws IllegalArgumentException if limit is not positive
+     */
+    public List<Car> getCarsPage(Long after, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be a positive value, got: " + limit);
+        }
+        logger.debug("Retrieving cars after ID: {} (limit {})", after, limit);
+        return carRepository.findPage(after, limit + 1);
+    }
+    
+    /**
+     * Search cars by brand, model prefix and year range, one page at a time
+     * 
+     * @param brand Brand, case-insensitive, null for any
+     * @param modelPrefix Model prefix, case-insensitive, null for any
+     * @param yearFrom Lowest year, null for no lower bound
+     * @param yearTo Highest year, null for no upper bound
+     * @param after Cursor: ID of the last car of the previous page, null for the first page
+     * @param limit Maximum number of cars on the page
+     * @return Matching cars of the page in ID order, plus one look-ahead car if more pages follow
+     * @throws IllegalArgumentException if limit is not positive or the year range is empty
+     */
+    public List<Car> searchCars(String brand, String modelPrefix, Integer yearFrom, Integer yearTo,
+                                Long after, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be a positive value, got: " + limit);
+        }
+        if (yearFrom != null && yearTo != null && yearFrom > yearTo) {
+            throw new IllegalArgumentException("yearFrom must not be after yearTo");
+        }
+        String brandFilter = brand != null && !brand.isBlank() ? brand.trim() : null;
+        String prefixFilter = modelPrefix != null && !modelPrefix.isBlank() ? modelPrefix.trim() : null;
+        logger.debug("Searching cars: brand {}, model prefix {}, years {}-{} after ID: {} (limit {})",
+            brandFilter, prefixFilter, yearFrom, yearTo, after, limit);
+        return carRepository.search(brandFilter, prefixFilter, yearFrom, yearTo, after, limit + 1);
+    }
+    
     /**
      * Get a car by its unique identifier
      * 
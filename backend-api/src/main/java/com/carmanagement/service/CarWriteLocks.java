@@ -0,0 +1,42 @@
+package com.carmanagement.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Write serialization per car
+ * Every mutation of a car's fuel history, and of the state derived from it,
+ * runs through withCarLock so that no two mutations of the same car overlap
+ * The implementation is chosen by fuel.storage.mode in StorageConfig
+ *
+ * Cars are also split into partitions that never share a writer; state
+ * derived per car is partitioned the same way, so each part of it is only
+ * written from its own partition
+ */
+public interface CarWriteLocks {
+
+    /**
+     * Run an action while holding the write lock of a car
+     *
+     * @param carId ID of the car being mutated
+     * @param action Action to run
+     * @return Result of the action
+     */
+    <T> T withCarLock(Long carId, Supplier<T> action);
+
+    /**
+     * Number of write partitions
+     */
+    default int partitionCount() {
+        return 1;
+    }
+
+    /**
+     * Partition owning a car
+     *
+     * @param carId ID of the car
+     * @return Partition index in [0, partitionCount())
+     */
+    default int partitionOf(Long carId) {
+        return 0;
+    }
+}
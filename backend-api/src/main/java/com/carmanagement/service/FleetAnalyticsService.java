@@ -0,0 +1,218 @@
+package com.carmanagement.service;
+
+import com.carmanagement.dto.FleetAnalytics;
+import com.carmanagement.dto.FleetGroupStats;
+import com.carmanagement.dto.FleetStats;
+import com.carmanagement.model.Car;
+import com.carmanagement.model.FuelAggregate;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * Service layer for fleet-wide fuel analytics
+ * Reduces the per-car running aggregates in parallel on a dedicated
+ * ForkJoinPool (fleet.analytics.parallelism), optionally grouped by any of
+ * brand, model and year; no fuel entry is rescanned
+ */
+@Service
+public class FleetAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FleetAnalyticsService.class);
+    private static final List<String> DIMENSIONS = List.of("brand", "model", "year");
+
+    private final CarService carService;
+    private final FuelService fuelService;
+    private final ForkJoinPool pool;
+
+    @Autowired
+    public FleetAnalyticsService(CarService carService, FuelService fuelService,
+                                 @Value("${fleet.analytics.parallelism:0}") int parallelism) {
+        this.carService = carService;
+        this.fuelService = fuelService;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Compute fleet totals and per-group statistics
+     *
+     * @param groupBy Dimensions to group by (brand, model, year), null or empty for totals only
+     * @return Fleet analytics
+     * @throws IllegalArgumentException if a dimension is unknown
+     */
+    public FleetAnalytics getAnalytics(List<String> groupBy) {
+        List<String> dimensions = normalizeDimensions(groupBy);
+        boolean byBrand = dimensions.contains("brand");
+        boolean byModel = dimensions.contains("model");
+        boolean byYear = dimensions.contains("year");
+
+        long start = System.nanoTime();
+        List<Car> cars = carService.getAllCars();
+
+        // Parallel streams started from a pool's worker run on that pool
+        Map<GroupKey, FleetTotals> totalsByGroup = pool.submit(() -> cars.parallelStream().collect(
+            Collectors.groupingBy(
+                car -> new GroupKey(
+                    byBrand ? car.getBrand() : null,
+                    byModel ? car.getModel() : null,
+                    byYear ? car.getYear() : null),
+                Collector.of(
+                    FleetTotals::new,
+                    (totals, car) -> totals.add(fuelService.getAggregate(car.getId())),
+                    FleetTotals::merge)))
+        ).join();
+
+        FleetTotals fleet = new FleetTotals();
+        totalsByGroup.values().forEach(fleet::merge);
+
+        List<FleetGroupStats> groups = new ArrayList<>();
+        if (!dimensions.isEmpty()) {
+            totalsByGroup.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(GroupKey.ORDER))
+                .forEach(entry -> groups.add(new FleetGroupStats(
+                    entry.getKey().brand, entry.getKey().model, entry.getKey().year, entry.getValue().toStats())));
+        }
+
+        logger.info("Computed fleet analytics over {} cars in {} groups in {} ms (parallelism {})",
+            cars.size(), groups.size(), (System.nanoTime() - start) / 1_000_000, pool.getParallelism());
+        return new FleetAnalytics(fleet.toStats(), dimensions, groups);
+    }
+
+    private List<String> normalizeDimensions(List<String> groupBy) {
+        List<String> dimensions = new ArrayList<>();
+        if (groupBy == null) {
+            return dimensions;
+        }
+        for (String value : groupBy) {
+            String dimension = value.trim().toLowerCase(Locale.ROOT);
+            if (dimension.isEmpty()) {
+                continue;
+            }
+            if (!DIMENSIONS.contains(dimension)) {
+                throw new IllegalArgumentException(
+                    "groupBy must be one or more of brand, model, year, got: " + value);
+            }
+            if (!dimensions.contains(dimension)) {
+                dimensions.add(dimension);
+            }
+        }
+        // Report dimensions in canonical order
+        dimensions.sort(Comparator.comparingInt(DIMENSIONS::indexOf));
+        return dimensions;
+    }
+
+    /**
+     * Group key; dimensions not grouped by are null
+     */
+    private static final class GroupKey {
+
+        private static final Comparator<GroupKey> ORDER = Comparator
+            .comparing((GroupKey key) -> key.brand, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(key -> key.model, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(key -> key.year, Comparator.nullsFirst(Comparator.<Integer>naturalOrder()));
+
+        private final String brand;
+        private final String model;
+        private final Integer year;
+
+        GroupKey(String brand, String model, Integer year) {
+            this.brand = brand;
+            this.model = model;
+            this.year = year;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof GroupKey)) {
+                return false;
+            }
+            GroupKey key = (GroupKey) other;
+            return Objects.equals(brand, key.brand) && Objects.equals(model, key.model)
+                && Objects.equals(year, key.year);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(brand, model, year);
+        }
+    }
+
+    /**
+     * Mutable accumulator of car aggregates, one per stream partition
+     * Consumption uses the same rule as per-car statistics: only cars with at
+     * least two entries and a positive distance contribute
+     */
+    private static final class FleetTotals {
+
+        private long carCount;
+        private long entryCount;
+        private double totalFuel;
+        private double totalCost;
+        private long totalDistance;
+        private double consumptionFuel;
+        private long consumptionDistance;
+        private long consumptionCars;
+        private double sumCarConsumption;
+
+        void add(FuelAggregate aggregate) {
+            carCount++;
+            entryCount += aggregate.getEntryCount();
+            totalFuel += aggregate.getTotalLiters();
+            totalCost += aggregate.getTotalCost();
+            int distance = aggregate.getDistance();
+            totalDistance += distance;
+            if (aggregate.getEntryCount() >= 2 && distance > 0) {
+                consumptionFuel += aggregate.getTotalLiters();
+                consumptionDistance += distance;
+                consumptionCars++;
+                sumCarConsumption += (aggregate.getTotalLiters() / distance) * 100;
+            }
+        }
+
+        FleetTotals merge(FleetTotals other) {
+            carCount += other.carCount;
+            entryCount += other.entryCount;
+            totalFuel += other.totalFuel;
+            totalCost += other.totalCost;
+            totalDistance += other.totalDistance;
+            consumptionFuel += other.consumptionFuel;
+            consumptionDistance += other.consumptionDistance;
+            consumptionCars += other.consumptionCars;
+            sumCarConsumption += other.sumCarConsumption;
+            return this;
+        }
+
+        FleetStats toStats() {
+            return new FleetStats(
+                carCount,
+                entryCount,
+                totalFuel,
+                totalCost,
+                totalDistance,
+                consumptionDistance > 0 ? (consumptionFuel / consumptionDistance) * 100 : null,
+                consumptionCars > 0 ? sumCarConsumption / consumptionCars : null
+            );
+        }
+    }
+}
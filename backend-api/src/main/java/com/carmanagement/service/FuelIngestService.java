@@ -0,0 +1,259 @@
+package com.carmanagement.service;
+
+import com.carmanagement.dto.FuelBatchItemResult;
+import com.carmanagement.dto.FuelBatchResult;
+import com.carmanagement.dto.FuelEntryRequest;
+import com.carmanagement.exception.CarNotFoundException;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service layer for streaming fleet-wide fuel ingestion
+ * Parses an NDJSON body of {carId, liters, price, odometer} objects incrementally,
+ * routes them into FuelService in per-car batches and streams NDJSON progress back
+ * At most one batch is buffered at a time, so memory use does not depend on the
+ * upload size; the body is only read as fast as batches are committed
+ */
+@Service
+public class FuelIngestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FuelIngestService.class);
+
+    private final FuelService fuelService;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    @Autowired
+    public FuelIngestService(FuelService fuelService, ObjectMapper objectMapper,
+                             @Value("${fuel.ingest.batch-size:500}") int batchSize) {
+        this.fuelService = fuelService;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Ingest an NDJSON stream of fuel readings
+     * Writes one "error" line per rejected record, one "progress" line per
+     * committed batch and a final "summary" line
+     *
+     * @param in NDJSON request body
+     * @param out Response body receiving NDJSON progress lines
+     * @throws IOException if reading the body or writing the response fails
+     */
+    public void ingest(InputStream in, OutputStream out) throws IOException {
+        IngestProgress progress = new IngestProgress();
+        Map<Long, List<PendingEntry>> pending = new LinkedHashMap<>();
+        int pendingCount = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                long record = ++progress.received;
+                if (token != JsonToken.START_OBJECT) {
+                    throw new JsonParseException(parser, "Expected a JSON object at record " + record);
+                }
+                try {
+                    PendingEntry entry = readEntry(parser, record);
+                    pending.computeIfAbsent(entry.carId, id -> new ArrayList<>()).add(entry);
+                    pendingCount++;
+                } catch (IllegalArgumentException e) {
+                    progress.rejected++;
+                    writeLine(out, errorLine(record, null, e.getMessage()));
+                }
+
+                if (pendingCount >= batchSize) {
+                    flush(pending, progress, out);
+                    pendingCount = 0;
+                }
+            }
+            flush(pending, progress, out);
+        } catch (JsonProcessingException e) {
+            // The stream cannot be resynchronized after malformed input: commit what was read and stop
+            flush(pending, progress, out);
+            progress.aborted = true;
+            writeLine(out, errorLine(progress.received, null, "Malformed NDJSON input: " + e.getOriginalMessage()));
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("type", "summary");
+        summary.put("received", progress.received);
+        summary.put("accepted", progress.accepted);
+        summary.put("rejected", progress.rejected);
+        summary.put("completed", !progress.aborted);
+        writeLine(out, summary);
+
+        logger.info("NDJSON ingest finished - {} received, {} accepted, {} rejected{}",
+            progress.received, progress.accepted, progress.rejected, progress.aborted ? " (aborted)" : "");
+    }
+
+    /**
+     * Read the fields of one object; the parser is positioned on its START_OBJECT
+     */
+    private PendingEntry readEntry(JsonParser parser, long record) throws IOException {
+        Number carId = null;
+        Number liters = null;
+        Number price = null;
+        Number odometer = null;
+        String invalidField = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                invalidField = invalidField != null ? invalidField : field;
+                continue;
+            }
+            Number number = value.isNumeric() ? parser.getNumberValue() : null;
+            if (number == null && value != JsonToken.VALUE_NULL) {
+                invalidField = invalidField != null ? invalidField : field;
+            }
+            switch (field) {
+                case "carId":
+                    carId = number;
+                    break;
+                case "liters":
+                    liters = number;
+                    break;
+                case "price":
+                    price = number;
+                    break;
+                case "odometer":
+                    odometer = number;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        if (invalidField != null) {
+            throw new IllegalArgumentException(invalidField + " must be a number");
+        }
+        if (carId == null) {
+            throw new IllegalArgumentException("carId is required");
+        }
+        long car = wholeNumber("carId", carId, 1, Long.MAX_VALUE);
+        FuelEntryRequest request = new FuelEntryRequest(
+            liters != null ? liters.doubleValue() : null,
+            price != null ? price.doubleValue() : null,
+            odometer != null ? (int) wholeNumber("odometer", odometer, Integer.MIN_VALUE, Integer.MAX_VALUE) : null
+        );
+        return new PendingEntry(record, car, request);
+    }
+
+    /**
+     * Exact value of an integral field; fractions and out-of-range values are
+     * rejected rather than truncated
+     */
+    private static long wholeNumber(String field, Number value, long min, long max) {
+        try {
+            long exact = new BigDecimal(value.toString()).longValueExact();
+            if (exact >= min && exact <= max) {
+                return exact;
+            }
+        } catch (ArithmeticException | NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException(String.format(
+            "%s must be a whole number between %d and %d, got: %s", field, min, max, value));
+    }
+
+    /**
+     * Commit all buffered entries, one FuelService batch per car, and report progress
+     */
+    private void flush(Map<Long, List<PendingEntry>> pending, IngestProgress progress, OutputStream out)
+            throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<Long, List<PendingEntry>> carBatch : pending.entrySet()) {
+            Long carId = carBatch.getKey();
+            List<PendingEntry> entries = carBatch.getValue();
+            List<FuelEntryRequest> requests = new ArrayList<>(entries.size());
+            entries.forEach(entry -> requests.add(entry.request));
+
+            try {
+                FuelBatchResult result = fuelService.addFuelEntries(carId, requests);
+                progress.accepted += result.getAccepted();
+                progress.rejected += result.getRejected();
+                for (FuelBatchItemResult item : result.getItems()) {
+                    if (!item.isSuccess()) {
+                        writeLine(out, errorLine(entries.get(item.getIndex()).record, carId, item.getError()));
+                    }
+                }
+            } catch (CarNotFoundException e) {
+                progress.rejected += entries.size();
+                for (PendingEntry entry : entries) {
+                    writeLine(out, errorLine(entry.record, carId, e.getMessage()));
+                }
+            }
+        }
+        pending.clear();
+
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("type", "progress");
+        line.put("received", progress.received);
+        line.put("accepted", progress.accepted);
+        line.put("rejected", progress.rejected);
+        writeLine(out, line);
+        out.flush();
+    }
+
+    private Map<String, Object> errorLine(long record, Long carId, String error) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("type", "error");
+        line.put("record", record);
+        if (carId != null) {
+            line.put("carId", carId);
+        }
+        line.put("error", error);
+        return line;
+    }
+
+    private void writeLine(OutputStream out, Map<String, Object> line) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(line));
+        out.write('\n');
+    }
+
+    /**
+     * A parsed record waiting for its car's batch to be committed
+     */
+    private static final class PendingEntry {
+        private final long record;
+        private final long carId;
+        private final FuelEntryRequest request;
+
+        PendingEntry(long record, long carId, FuelEntryRequest request) {
+            this.record = record;
+            this.carId = carId;
+            this.request = request;
+        }
+    }
+
+    /**
+     * Running counters of one ingest stream
+     */
+    private static final class IngestProgress {
+        private long received;
+        private long accepted;
+        private long rejected;
+        private boolean aborted;
+    }
+}
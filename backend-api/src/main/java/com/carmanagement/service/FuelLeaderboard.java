@@ -0,0 +1,170 @@
+package com.carmanagement.service;
+
+import com.carmanagement.model.FuelAggregate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Cars ranked by average fuel consumption
+ * Keeps every car that has an average in a skip list ordered by
+ * (consumption, car ID), so a write re-ranks its car in O(log n) and the
+ * best or worst N are read from either end in O(N)
+ *
+ * There is one skip list per write partition (CarWriteLocks), only written
+ * by that partition; a read merges the partitions' ends in O(N log P)
+ * A car is only re-ranked under its write lock; it is removed and re-added,
+ * so a concurrent reader may briefly miss it, or pass its old ranking before
+ * the removal and then reach the new one; top() keeps only the first
+ * ranking it meets for each car
+ * Stored cars are ranked by FuelService once recovery has finished
+ */
+@Component
+public class FuelLeaderboard {
+
+    private final CarWriteLocks carWriteLocks;
+    private final Partition[] partitions;
+
+    @Autowired
+    public FuelLeaderboard(CarWriteLocks carWriteLocks) {
+        this.carWriteLocks = carWriteLocks;
+        this.partitions = new Partition[carWriteLocks.partitionCount()];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new Partition();
+        }
+    }
+
+    /**
+     * Re-rank a car after its aggregate changed
+     * Must be called under the car's write lock
+     *
+     * @param carId ID of the car
+     * @param aggregate New aggregate of the car
+     */
+    public void update(Long carId, FuelAggregate aggregate) {
+        int distance = aggregate.getDistance();
+        if (distance <= 0) {
+            return;
+        }
+        Partition partition = partitions[carWriteLocks.partitionOf(carId)];
+        Ranking ranking = new Ranking((aggregate.getTotalLiters() / distance) * 100, carId);
+        Ranking previous = partition.rankingByCar.put(carId, ranking);
+        if (previous != null) {
+            partition.rankings.remove(previous);
+        }
+        partition.rankings.add(ranking);
+    }
+
+    /**
+     * Most or least efficient cars
+     *
+     * @param best true for the lowest consumption first, false for the highest
+     * @param limit Maximum number of cars
+     * @return Rankings in leaderboard order, at most one per car
+     */
+    public List<Ranking> top(boolean best, int limit) {
+        List<Ranking> result = new ArrayList<>(Math.min(limit, 1024));
+        HashSet<Long> ranked = new HashSet<>();
+        if (partitions.length == 1) {
+            Iterator<Ranking> iterator = partitions[0].iterator(best);
+            while (result.size() < limit && iterator.hasNext()) {
+                Ranking ranking = iterator.next();
+                if (ranked.add(ranking.getCarId())) {
+                    result.add(ranking);
+                }
+            }
+            return result;
+        }
+
+        // Merge the partitions' heads, taking the next car from whichever ranks first
+        Comparator<Ranking> order = best ? Ranking.ORDER : Ranking.ORDER.reversed();
+        PriorityQueue<Head> heads = new PriorityQueue<>(partitions.length,
+            (a, b) -> order.compare(a.ranking, b.ranking));
+        for (Partition partition : partitions) {
+            Iterator<Ranking> iterator = partition.iterator(best);
+            if (iterator.hasNext()) {
+                heads.add(new Head(iterator.next(), iterator));
+            }
+        }
+        while (result.size() < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            if (ranked.add(head.ranking.getCarId())) {
+                result.add(head.ranking);
+            }
+            if (head.rest.hasNext()) {
+                heads.add(new Head(head.rest.next(), head.rest));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Number of ranked cars
+     */
+    public int size() {
+        int size = 0;
+        for (Partition partition : partitions) {
+            size += partition.rankingByCar.size();
+        }
+        return size;
+    }
+
+    /**
+     * Rankings of the cars of one write partition
+     */
+    private static final class Partition {
+        private final ConcurrentSkipListSet<Ranking> rankings = new ConcurrentSkipListSet<>(Ranking.ORDER);
+        private final ConcurrentHashMap<Long, Ranking> rankingByCar = new ConcurrentHashMap<>();
+
+        Iterator<Ranking> iterator(boolean best) {
+            return best ? rankings.iterator() : rankings.descendingIterator();
+        }
+    }
+
+    /**
+     * Next ranking of a partition during a merge, with the rest of the partition
+     */
+    private static final class Head {
+        private final Ranking ranking;
+        private final Iterator<Ranking> rest;
+
+        Head(Ranking ranking, Iterator<Ranking> rest) {
+            this.ranking = ranking;
+            this.rest = rest;
+        }
+    }
+
+    /**
+     * Average consumption of one car at the time it was ranked
+     */
+    public static final class Ranking {
+
+        static final Comparator<Ranking> ORDER = Comparator
+            .comparingDouble(Ranking::getConsumption)
+            .thenComparingLong(Ranking::getCarId);
+
+        private final double consumption;
+        private final long carId;
+
+        Ranking(double consumption, long carId) {
+            this.consumption = consumption;
+            this.carId = carId;
+        }
+
+        public double getConsumption() {
+            return consumption;
+        }
+
+        public long getCarId() {
+            return carId;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.carmanagement.service;
+
+import com.carmanagement.model.FuelAggregate;
+import com.carmanagement.model.FuelEntry;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Prefix sums over one car's fuel history
+ * Entries are kept in append order, which is both odometer order (enforced
+ * on write) and timestamp order (entries are stamped on arrival), so a single
+ * set of prefix sums answers windows on either key with two binary searches
+ * Timestamps are stored as epoch millis, clamped to be non-decreasing in
+ * case the clock steps back
+ *
+ * A single writer (holding the car's write lock) appends and publishes
+ * through the volatile size; readers never lock and only look below size
+ * Grown arrays are published through their volatile fields before size, and
+ * readers read size before the arrays, so a reader that sees a size also
+ * sees arrays holding every entry below it
+ */
+public final class FuelPrefixIndex {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private volatile int[] odometers;
+    private volatile long[] timestamps;
+    // litersSums[i] and costSums[i] hold the totals of the first i entries
+    private volatile double[] litersSums;
+    private volatile double[] costSums;
+    private volatile int size;
+
+    private FuelPrefixIndex(int capacity) {
+        odometers = new int[capacity];
+        timestamps = new long[capacity];
+        litersSums = new double[capacity + 1];
+        costSums = new double[capacity + 1];
+    }
+
+    /**
+     * Build an index over a car's entries in odometer order
+     */
+    public static FuelPrefixIndex of(List<FuelEntry> entries) {
+        FuelPrefixIndex index = new FuelPrefixIndex(Math.max(INITIAL_CAPACITY, entries.size()));
+        entries.forEach(index::append);
+        return index;
+    }
+
+    /**
+     * Append the next entry of the car
+     */
+    public void append(FuelEntry entry) {
+        int n = size;
+        int[] odometerKeys = odometers;
+        long[] timeKeys = timestamps;
+        double[] liters = litersSums;
+        double[] costs = costSums;
+        if (n == odometerKeys.length) {
+            int capacity = n + (n >> 1);
+            odometerKeys = Arrays.copyOf(odometerKeys, capacity);
+            timeKeys = Arrays.copyOf(timeKeys, capacity);
+            liters = Arrays.copyOf(liters, capacity + 1);
+            costs = Arrays.copyOf(costs, capacity + 1);
+            // Publish the copies before size can cover the slots they add
+            odometers = odometerKeys;
+            timestamps = timeKeys;
+            litersSums = liters;
+            costSums = costs;
+        }
+        long timestamp = entry.getTimestampMillis();
+        odometerKeys[n] = entry.getOdometer();
+        timeKeys[n] = n > 0 ? Math.max(timeKeys[n - 1], timestamp) : timestamp;
+        liters[n + 1] = liters[n] + entry.getLiters();
+        costs[n + 1] = costs[n] + entry.getPrice();
+        size = n + 1;
+    }
+
+    /**
+     * Totals of the entries with from &lt;= odometer &lt;= to
+     */
+    public FuelAggregate rangeByOdometer(long from, long to) {
+        int n = size;
+        int[] keys = odometers;
+        // First index with odometer >= from
+        int lo = 0;
+        int hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < from) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        int first = lo;
+        // First index with odometer > to
+        hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] <= to) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return window(first, lo);
+    }
+
+    /**
+     * Totals of the entries with fromMillis &lt;= timestamp &lt;= toMillis
+     */
+    public FuelAggregate rangeByTime(long fromMillis, long toMillis) {
+        int n = size;
+        long[] keys = timestamps;
+        // First index with timestamp >= fromMillis
+        int lo = 0;
+        int hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < fromMillis) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        int first = lo;
+        // First index with timestamp > toMillis
+        hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] <= toMillis) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return window(first, lo);
+    }
+
+    private FuelAggregate window(int first, int end) {
+        if (first >= end) {
+            return FuelAggregate.EMPTY;
+        }
+        double[] liters = litersSums;
+        double[] costs = costSums;
+        int[] keys = odometers;
+        return new FuelAggregate(
+            liters[end] - liters[first],
+            costs[end] - costs[first],
+            keys[first],
+            keys[end - 1],
+            end - first
+        );
+    }
+}
@@ -0,0 +1,207 @@
+package com.carmanagement.service;
+
+import com.carmanagement.dto.FuelRollupBucket;
+import com.carmanagement.dto.FuelRollupReport;
+import com.carmanagement.model.FuelAggregate;
+import com.carmanagement.model.FuelEntry;
+import com.carmanagement.model.FuelRollup;
+import com.carmanagement.util.LocalTimes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Materialized hour, day and month rollups of fuel entries, per car and fleet-wide
+ * Every accepted entry is folded into one bucket per granularity as it is
+ * stored, so a report costs one sorted-map range scan over its buckets and
+ * never touches the entries. Buckets are keyed by their start in epoch
+ * millis and hold immutable totals swapped with an atomic merge
+ *
+ * Buckets are split by write partition (CarWriteLocks): each partition holds
+ * the per-car buckets of its cars and fleet buckets covering only those cars,
+ * and a fleet report sums the partitions' buckets as it reads them
+ * Per-car buckets are only written under the car's write lock; a partition's
+ * fleet buckets are shared by its cars and rely on the merge alone, which
+ * sees no contention from other partitions
+ * Stored histories are folded in by FuelService once recovery has finished
+ */
+@Component
+public class FuelRollups {
+
+    /**
+     * Bucket sizes
+     */
+    public enum Granularity {
+        HOUR, DAY, MONTH;
+
+        /**
+         * Start of the bucket containing a timestamp
+         */
+        LocalDateTime bucketStart(LocalDateTime timestamp) {
+            switch (this) {
+                case HOUR:
+                    return timestamp.truncatedTo(ChronoUnit.HOURS);
+                case DAY:
+                    return timestamp.truncatedTo(ChronoUnit.DAYS);
+                default:
+                    return timestamp.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+            }
+        }
+
+        /**
+         * Parse a granularity name, case-insensitively
+         * @throws IllegalArgumentException if the name is unknown
+         */
+        public static Granularity parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("granularity must be hour, day or month, got: " + value);
+            }
+        }
+    }
+
+    private final CarWriteLocks carWriteLocks;
+    private final Partition[] partitions;
+
+    @Autowired
+    public FuelRollups(CarWriteLocks carWriteLocks) {
+        this.carWriteLocks = carWriteLocks;
+        this.partitions = new Partition[carWriteLocks.partitionCount()];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new Partition();
+        }
+    }
+
+    /**
+     * Fold newly stored entries of a car into the rollups
+     * Must be called under the car's write lock
+     *
+     * @param carId ID of the car
+     * @param before Aggregate of the car before the entries were added
+     * @param entries Stored entries in odometer order
+     */
+    public void record(Long carId, FuelAggregate before, List<FuelEntry> entries) {
+        Partition partition = partitions[carWriteLocks.partitionOf(carId)];
+        boolean first = before.getEntryCount() == 0;
+        int previousOdometer = before.getMaxOdometer();
+        for (FuelEntry entry : entries) {
+            // Distance is attributed to the fill-up that ends it
+            long distance = first ? 0 : entry.getOdometer() - previousOdometer;
+            first = false;
+            previousOdometer = entry.getOdometer();
+
+            LocalDateTime timestamp = entry.getTimestamp();
+            FuelRollup single = FuelRollup.EMPTY.plus(entry.getLiters(), entry.getPrice(), distance);
+            for (Granularity granularity : Granularity.values()) {
+                long bucket = toMillis(granularity.bucketStart(timestamp));
+                partition.carBuckets.get(granularity)
+                    .computeIfAbsent(carId, id -> new ConcurrentSkipListMap<>())
+                    .merge(bucket, single, FuelRollup::plus);
+                partition.fleetBuckets.get(granularity).merge(bucket, single, FuelRollup::plus);
+            }
+        }
+    }
+
+    /**
+     * Buckets of a car within a window
+     *
+     * @param carId ID of the car
+     * @param granularity Bucket size
+     * @param fromMillis Inclusive lower bound (epoch millis) on bucket starts
+     * @param toMillis Inclusive upper bound (epoch millis) on bucket starts
+     * @return Report of the car
+     */
+    public FuelRollupReport carReport(Long carId, Granularity granularity, long fromMillis, long toMillis) {
+        NavigableMap<Long, FuelRollup> buckets =
+            partitions[carWriteLocks.partitionOf(carId)].carBuckets.get(granularity).get(carId);
+        long from = windowStart(granularity, fromMillis);
+        return report(carId, granularity, buckets != null ? buckets.subMap(from, true, toMillis, true) : null);
+    }
+
+    /**
+     * Fleet-wide buckets within a window
+     *
+     * @param granularity Bucket size
+     * @param fromMillis Inclusive lower bound (epoch millis) on bucket starts
+     * @param toMillis Inclusive upper bound (epoch millis) on bucket starts
+     * @return Report of the fleet
+     */
+    public FuelRollupReport fleetReport(Granularity granularity, long fromMillis, long toMillis) {
+        long from = windowStart(granularity, fromMillis);
+        if (partitions.length == 1) {
+            return report(null, granularity,
+                partitions[0].fleetBuckets.get(granularity).subMap(from, true, toMillis, true));
+        }
+        NavigableMap<Long, FuelRollup> merged = new TreeMap<>();
+        for (Partition partition : partitions) {
+            partition.fleetBuckets.get(granularity).subMap(from, true, toMillis, true)
+                .forEach((start, rollup) -> merged.merge(start, rollup, FuelRollup::plus));
+        }
+        return report(null, granularity, merged);
+    }
+
+    /**
+     * Lower bound of a window widened to the start of the bucket containing it
+     */
+    private static long windowStart(Granularity granularity, long fromMillis) {
+        return fromMillis == Long.MIN_VALUE
+            ? Long.MIN_VALUE
+            : toMillis(granularity.bucketStart(toDateTime(fromMillis)));
+    }
+
+    private FuelRollupReport report(Long carId, Granularity granularity, Map<Long, FuelRollup> buckets) {
+        List<FuelRollupBucket> result = new ArrayList<>();
+        FuelRollup total = FuelRollup.EMPTY;
+        if (buckets != null) {
+            for (Map.Entry<Long, FuelRollup> bucket : buckets.entrySet()) {
+                result.add(toBucket(toDateTime(bucket.getKey()), bucket.getValue()));
+                total = total.plus(bucket.getValue());
+            }
+        }
+        LocalDateTime start = result.isEmpty() ? null : result.get(0).getStart();
+        return new FuelRollupReport(carId, granularity.name().toLowerCase(Locale.ROOT), result,
+            toBucket(start, total));
+    }
+
+    private static FuelRollupBucket toBucket(LocalDateTime start, FuelRollup rollup) {
+        return new FuelRollupBucket(start, rollup.getLiters(), rollup.getCost(),
+            rollup.getDistance(), rollup.getCount());
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return LocalTimes.toMillis(dateTime);
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalTimes.toDateTime(millis);
+    }
+
+    /**
+     * Buckets of the cars of one write partition
+     */
+    private static final class Partition {
+        private final Map<Granularity, ConcurrentHashMap<Long, ConcurrentSkipListMap<Long, FuelRollup>>> carBuckets =
+            new EnumMap<>(Granularity.class);
+        private final Map<Granularity, ConcurrentSkipListMap<Long, FuelRollup>> fleetBuckets =
+            new EnumMap<>(Granularity.class);
+
+        Partition() {
+            for (Granularity granularity : Granularity.values()) {
+                carBuckets.put(granularity, new ConcurrentHashMap<>());
+                fleetBuckets.put(granularity, new ConcurrentSkipListMap<>());
+            }
+        }
+    }
+}
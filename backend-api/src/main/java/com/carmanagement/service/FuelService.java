@@ -1,34 +1,91 @@
 package com.carmanagement.service;
 
+import com.carmanagement.dto.ConsumptionPoint;
+import com.carmanagement.dto.ConsumptionSeries;
+import com.carmanagement.dto.FuelBatchItemResult;
+import com.carmanagement.dto.FuelBatchResult;
 import com.carmanagement.dto.FuelEntryRequest;
+import com.carmanagement.dto.FuelRollupReport;
 import com.carmanagement.dto.FuelStats;
+import com.carmanagement.dto.LeaderboardEntry;
+import com.carmanagement.exception.CarNotFoundException;
 import com.carmanagement.model.Car;
+import com.carmanagement.model.FuelAggregate;
 import com.carmanagement.model.FuelEntry;
 import com.carmanagement.repository.FuelEntryRepository;
+import com.carmanagement.util.Downsampling;
+import com.carmanagement.util.LocalTimes;
+import com.carmanagement.util.TimeBounds;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.Comparator;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service layer for Fuel Entry business logic
  * Manages fuel entries and calculates statistics
+ * Keeps per-car running aggregates so statistics never rescan the history
+ * Aggregates and prefix indexes are split by write partition (CarWriteLocks),
+ * so each part is only written by its partition's writer; reads take the
+ * immutable aggregate last published for a car without locking
+ * The aggregates, rollups and leaderboard are built from the stored entries
+ * in one pass once every singleton, including durable-mode recovery, is
+ * initialized, and before the server accepts requests
  */
 @Service
-public class FuelService {
+public class FuelService implements SmartInitializingSingleton {
     
     private static final Logger logger = LoggerFactory.getLogger(FuelService.class);
+    private static final int MAX_SERIES_POINTS = 10_000;
     
     private final FuelEntryRepository fuelEntryRepository;
     private final CarService carService;
+    private final CarWriteLocks carWriteLocks;
+    private final FuelRollups rollups;
+    private final FuelLeaderboard leaderboard;
+    private final Partition[] partitions;
     
     @Autowired
-    public FuelService(FuelEntryRepository fuelEntryRepository, CarService carService) {
+    public FuelService(FuelEntryRepository fuelEntryRepository, CarService carService,
+                       CarWriteLocks carWriteLocks, FuelRollups rollups, FuelLeaderboard leaderboard) {
         this.fuelEntryRepository = fuelEntryRepository;
         this.carService = carService;
+        this.carWriteLocks = carWriteLocks;
+        this.rollups = rollups;
+        this.leaderboard = leaderboard;
+        this.partitions = new Partition[carWriteLocks.partitionCount()];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new Partition();
+        }
+    }
+    
+    /**
+     * Fold every stored car's history into its aggregate, the rollups and the
+     * leaderboard, reading each history once
+     * Runs before requests are accepted, so no write can interleave
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<Car> cars = carService.getAllCars();
+        for (Car car : cars) {
+            Long carId = car.getId();
+            List<FuelEntry> entries = fuelEntryRepository.findByCarId(carId);
+            FuelAggregate aggregate = FuelAggregate.EMPTY;
+            for (FuelEntry entry : entries) {
+                aggregate = aggregate.plus(entry);
+            }
+            partitionOf(carId).aggregates.put(carId, aggregate);
+            leaderboard.update(carId, aggregate);
+            rollups.record(carId, FuelAggregate.EMPTY, entries);
+        }
+        logger.info("Built fuel aggregates, rollups and rankings for {} cars", cars.size());
     }
     
     /**
@@ -47,27 +104,96 @@ public class FuelService {
         // Validate car existence via CarService
         Car car = carService.getCarById(carId);
         
-        // Verify odometer reading exceeds previous entries
-        validateOdometerReading(carId, request.getOdometer());
-        
-        // Create FuelEntry entity with current timestamp
-        FuelEntry fuelEntry = new FuelEntry(
-            request.getLiters(),
-            request.getPrice(),
-            request.getOdometer()
-        );
+        // Validate and persist under the car's write lock so concurrent submits
+        // for the same car cannot both pass the odometer check
+        FuelEntry savedEntry = carWriteLocks.withCarLock(carId, () -> {
+            FuelAggregate current = aggregateOf(carId);
+            
+            // Verify odometer reading exceeds previous entries
+            validateOdometerReading(current, request.getOdometer());
+            
+            // Create FuelEntry entity with current timestamp
+            FuelEntry fuelEntry = new FuelEntry(
+                request.getLiters(),
+                request.getPrice(),
+                request.getOdometer()
+            );
+            
+            // Associate entry with car
+            fuelEntry.setCar(car);
+            
+            // Persist entry
+            FuelEntry saved = fuelEntryRepository.save(fuelEntry);
+            
+            // Publish the car's new running aggregate, which also bumps its version
+            FuelAggregate updated = current.plus(saved);
+            partitionOf(carId).aggregates.put(carId, updated);
+            leaderboard.update(carId, updated);
+            appendToPrefixIndex(carId, List.of(saved));
+            rollups.record(carId, current, List.of(saved));
+            return saved;
+        });
         
-        // Associate entry with car
-        fuelEntry.setCar(car);
+        logger.info("Successfully added fuel entry with ID: {}", savedEntry.getId());
+        return savedEntry;
+    }
+    
+    /**
+     * Add an ordered batch of fuel entries to a car
+     * Items are validated against a single odometer baseline that advances with
+     * each accepted item; rejected items are reported and skipped. Accepted
+     * entries are stored with one lock acquisition and one aggregate update
+     * 
+     * @param carId ID of the car
+     * @param requests Fuel entries in odometer order
+     * @return Per-item results in submission order
+     */
+    public FuelBatchResult addFuelEntries(Long carId, List<FuelEntryRequest> requests) {
+        logger.info("Adding batch of {} fuel entries for car ID: {}", requests.size(), carId);
         
-        // Persist entry
-        FuelEntry savedEntry = fuelEntryRepository.save(fuelEntry);
+        // Validate car existence via CarService
+        Car car = carService.getCarById(carId);
         
-        // Add to car's fuel entries list
-        car.addFuelEntry(savedEntry);
+        List<FuelBatchItemResult> items = new ArrayList<>(requests.size());
+        int accepted = carWriteLocks.withCarLock(carId, () -> {
+            FuelAggregate before = aggregateOf(carId);
+            FuelAggregate running = before;
+            List<FuelEntry> batch = new ArrayList<>(requests.size());
+            
+            for (int i = 0; i < requests.size(); i++) {
+                FuelEntryRequest request = requests.get(i);
+                try {
+                    if (request == null) {
+                        throw new IllegalArgumentException("Fuel entry is required");
+                    }
+                    FuelEntry fuelEntry = new FuelEntry(
+                        request.getLiters(),
+                        request.getPrice(),
+                        request.getOdometer()
+                    );
+                    validateOdometerReading(running, request.getOdometer());
+                    fuelEntry.setCar(car);
+                    running = running.plus(fuelEntry);
+                    batch.add(fuelEntry);
+                    items.add(FuelBatchItemResult.accepted(i, fuelEntry));
+                } catch (IllegalArgumentException e) {
+                    items.add(FuelBatchItemResult.rejected(i, e.getMessage()));
+                }
+            }
+            
+            if (!batch.isEmpty()) {
+                fuelEntryRepository.saveAll(batch);
+                partitionOf(carId).aggregates.put(carId, running);
+                leaderboard.update(carId, running);
+                appendToPrefixIndex(carId, batch);
+                rollups.record(carId, before, batch);
+            }
+            return batch.size();
+        });
         
-        logger.info("Successfully added fuel entry with ID: {}", savedEntry.getId());
-        return savedEntry;
+        logger.info("Fuel batch for car ID: {} - {} accepted, {} rejected", 
+            carId, accepted, requests.size() - accepted);
+        return new FuelBatchResult(accepted, requests.size() - accepted, items);
     }
     
     /**
@@ -78,45 +204,252 @@ public class FuelService {
      * @return FuelStats DTO containing statistics
      */
     public FuelStats calculateStatistics(Long carId) {
-        logger.info("Calculating fuel statistics for car ID: {}", carId);
+        // Validate car exists
+        carService.getCarById(carId);
         
+        // Read the car's running aggregate instead of rescanning its entries
+        FuelAggregate aggregate = aggregateOf(carId);
+        return toStatistics(carId, aggregate);
+    }
+    
+    /**
+     * Calculate fuel statistics for a window of a car's history
+     * Answered from the car's prefix sums with two binary searches; the
+     * window is inclusive on both ends and either end may be open
+     * 
+     * @param carId ID of the car
+     * @param by "odometer" or "time"; when null, numeric bounds mean odometer
+     * @param from Lower bound: odometer reading, ISO date or ISO date-time (server time zone)
+     * @param to Upper bound: odometer reading, ISO date (whole day) or ISO date-time (server time zone)
+     * @return FuelStats DTO for the entries in the window
+     * @throws IllegalArgumentException if the window is invalid
+     */
+    public FuelStats calculateStatistics(Long carId, String by, String from, String to) {
+        // Validate car exists
+        carService.getCarById(carId);
+        
+        String dimension = by != null ? by.trim().toLowerCase(Locale.ROOT) : null;
+        if (dimension == null) {
+            dimension = isNumeric(from) && isNumeric(to) ? "odometer" : "time";
+        }
+        
+        FuelAggregate window;
+        if (dimension.equals("odometer")) {
+            long lower = from != null ? parseOdometerBound("from", from) : Long.MIN_VALUE;
+            long upper = to != null ? parseOdometerBound("to", to) : Long.MAX_VALUE;
+            TimeBounds.requireOrdered(lower, upper);
+            window = prefixIndexOf(carId).rangeByOdometer(lower, upper);
+        } else if (dimension.equals("time")) {
+            long lower = TimeBounds.parseMillis("from", from, false);
+            long upper = TimeBounds.parseMillis("to", to, true);
+            TimeBounds.requireOrdered(lower, upper);
+            window = prefixIndexOf(carId).rangeByTime(lower, upper);
+        } else {
+            throw new IllegalArgumentException("by must be 'time' or 'odometer', got: " + by);
+        }
+        
+        logger.info("Calculating fuel statistics for car ID: {} by {} in [{}, {}]", carId, dimension, from, to);
+        return toStatistics(carId, window);
+    }
+    
+    /**
+     * Get a car's consumption between consecutive fill-ups, optionally downsampled
+     * The segment series is built in one pass over the car's odometer-ordered
+     * entries into primitive columns; downsampling then picks original points
+     * 
+     * @param carId ID of the car
+     * @param points Maximum number of points to return, null for the full series
+     * @param method lttb (Largest-Triangle-Three-Buckets) or minmax (lowest and highest point per bucket)
+     * @return Consumption series in odometer order
+     * @throws IllegalArgumentException if points or method is invalid
+     */
+    public ConsumptionSeries getConsumptionSeries(Long carId, Integer points, String method) {
+        // Validate car exists
+        carService.getCarById(carId);
+        
+        String downsampling = method != null ? method.trim().toLowerCase(Locale.ROOT) : "lttb";
+        if (!downsampling.equals("lttb") && !downsampling.equals("minmax")) {
+            throw new IllegalArgumentException("method must be 'lttb' or 'minmax', got: " + method);
+        }
+        int minPoints = downsampling.equals("lttb") ? 3 : 2;
+        if (points != null && (points < minPoints || points > MAX_SERIES_POINTS)) {
+            throw new IllegalArgumentException(String.format(
+                "points must be between %d and %d for %s, got: %d", minPoints, MAX_SERIES_POINTS, downsampling, points));
+        }
+        
+        // Bound the pass by the current version; the view may grow while it is read
+        long entryCount = aggregateOf(carId).getEntryCount();
+        int segments = (int) Math.max(0, entryCount - 1);
+        int[] odometers = new int[segments];
+        int[] distances = new int[segments];
+        double[] liters = new double[segments];
+        double[] consumption = new double[segments];
+        double[] x = new double[segments];
+        long[] timestamps = new long[segments];
+        
+        int previousOdometer = 0;
+        int seen = 0;
+        for (FuelEntry entry : fuelEntryRepository.entriesOf(carId)) {
+            if (seen > segments) {
+                break;
+            }
+            if (seen > 0) {
+                int i = seen - 1;
+                int distance = entry.getOdometer() - previousOdometer;
+                odometers[i] = entry.getOdometer();
+                distances[i] = distance;
+                liters[i] = entry.getLiters();
+                consumption[i] = entry.getLiters() / distance * 100;
+                x[i] = entry.getOdometer();
+                timestamps[i] = entry.getTimestampMillis();
+            }
+            previousOdometer = entry.getOdometer();
+            seen++;
+        }
+        
+        int[] selected;
+        if (points == null || points >= segments) {
+            downsampling = "none";
+            selected = null;
+        } else if (downsampling.equals("lttb")) {
+            selected = Downsampling.lttb(x, consumption, segments, points);
+        } else {
+            selected = Downsampling.minMax(consumption, segments, points);
+        }
+        
+        int size = selected != null ? selected.length : segments;
+        List<ConsumptionPoint> series = new ArrayList<>(size);
+        for (int k = 0; k < size; k++) {
+            int i = selected != null ? selected[k] : k;
+            LocalDateTime timestamp = LocalTimes.toDateTime(timestamps[i]);
+            series.add(new ConsumptionPoint(odometers[i], timestamp, distances[i], liters[i], consumption[i]));
+        }
+        
+        logger.info("Consumption series for car ID: {} - {} segments, {} points ({})",
+            carId, segments, series.size(), downsampling);
+        return new ConsumptionSeries(carId, segments, downsampling, series);
+    }
+    
+    /**
+     * Get time-bucketed fuel totals of a car
+     * Read from the materialized rollups, so the cost depends on the number
+     * of buckets in the window, not on the number of entries
+     * 
+     * @param carId ID of the car
+     * @param granularity hour, day or month
+     * @param from Lower bound: ISO date or date-time (server time zone), null for open
+     * @param to Upper bound: ISO date (whole day) or date-time (server time zone), null for open
+     * @return Non-empty buckets in the window and their total
+     * @throws IllegalArgumentException if the granularity or window is invalid
+     */
+    public FuelRollupReport getRollups(Long carId, String granularity, String from, String to) {
         // Validate car exists
         carService.getCarById(carId);
         
-        // Retrieve all fuel entries for specified car
-        List<FuelEntry> entries = fuelEntryRepository.findByCarId(carId);
+        FuelRollups.Granularity size = FuelRollups.Granularity.parse(granularity);
+        long lower = TimeBounds.parseMillis("from", from, false);
+        long upper = TimeBounds.parseMillis("to", to, true);
+        TimeBounds.requireOrdered(lower, upper);
+        return rollups.carReport(carId, size, lower, upper);
+    }
+    
+    /**
+     * Get time-bucketed fuel totals across all cars
+     * 
+     * @param granularity hour, day or month
+     * @param from Lower bound: ISO date or date-time (server time zone), null for open
+     * @param to Upper bound: ISO date (whole day) or date-time (server time zone), null for open
+     * @return Non-empty buckets in the window and their total
+     * @throws IllegalArgumentException if the granularity or window is invalid
+     */
+    public FuelRollupReport getFleetRollups(String granularity, String from, String to) {
+        FuelRollups.Granularity size = FuelRollups.Granularity.parse(granularity);
+        long lower = TimeBounds.parseMillis("from", from, false);
+        long upper = TimeBounds.parseMillis("to", to, true);
+        TimeBounds.requireOrdered(lower, upper);
+        return rollups.fleetReport(size, lower, upper);
+    }
+    
+    /**
+     * Get the most or least fuel-efficient cars
+     * Read from the maintained leaderboard in O(limit); cars without an
+     * average consumption (fewer than two entries) are not ranked
+     * 
+     * @param order best (lowest consumption first) or worst (highest first)
+     * @param limit Maximum number of cars
+     * @return Leaderboard entries in rank order
+     * @throws IllegalArgumentException if order or limit is invalid
+     */
+    public List<LeaderboardEntry> getLeaderboard(String order, int limit) {
+        boolean best;
+        if ("best".equalsIgnoreCase(order)) {
+            best = true;
+        } else if ("worst".equalsIgnoreCase(order)) {
+            best = false;
+        } else {
+            throw new IllegalArgumentException("order must be 'best' or 'worst', got: " + order);
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be a positive value, got: " + limit);
+        }
+        
+        List<FuelLeaderboard.Ranking> rankings = leaderboard.top(best, limit);
+        List<LeaderboardEntry> entries = new ArrayList<>(rankings.size());
+        for (FuelLeaderboard.Ranking ranking : rankings) {
+            Car car = carService.getCarById(ranking.getCarId());
+            entries.add(new LeaderboardEntry(entries.size() + 1, car.getId(), car.getBrand(), car.getModel(),
+                car.getYear(), ranking.getConsumption()));
+        }
+        return entries;
+    }
+    
+    /**
+     * Get the modification version of a car's fuel history
+     * Fuel history is append-only, so the version is the number of stored
+     * entries: it grows with every accepted entry and survives restarts
+     * 
+     * @param carId ID of the car
+     * @return Current version of the car
+     * @throws CarNotFoundException if car doesn't exist
+     */
+    public long getVersion(Long carId) {
+        carService.getCarById(carId);
+        return aggregateOf(carId).getEntryCount();
+    }
+    
+    /**
+     * Get the running aggregate of a car known to exist
+     * 
+     * @param carId ID of the car
+     * @return Current aggregate of the car's fuel entries
+     */
+    public FuelAggregate getAggregate(Long carId) {
+        return aggregateOf(carId);
+    }
+    
+    /**
+     * Compute fuel statistics from a car's aggregate
+     * 
+     * @param carId ID of the car
+     * @param aggregate Aggregate of the car's fuel entries
+     * @return FuelStats DTO containing statistics
+     */
+    private FuelStats toStatistics(Long carId, FuelAggregate aggregate) {
+        logger.info("Calculating fuel statistics for car ID: {}", carId);
         
-        if (entries.isEmpty()) {
+        if (aggregate.getEntryCount() == 0) {
             logger.info("No fuel entries found for car ID: {}", carId);
             return new FuelStats(0.0, 0.0, null);
         }
         
-        // Calculate total fuel: sum(entry.liters)
-        double totalFuel = entries.stream()
-            .mapToDouble(FuelEntry::getLiters)
-            .sum();
-        
-        // Calculate total cost: sum(entry.price)
-        double totalCost = entries.stream()
-            .mapToDouble(FuelEntry::getPrice)
-            .sum();
+        double totalFuel = aggregate.getTotalLiters();
+        double totalCost = aggregate.getTotalCost();
         
         // Calculate average consumption
         Double averageConsumption = null;
         
-        if (entries.size() >= 2) {
-            // Get min and max odometer readings
-            int minOdometer = entries.stream()
-                .mapToInt(FuelEntry::getOdometer)
-                .min()
-                .orElse(0);
-            
-            int maxOdometer = entries.stream()
-                .mapToInt(FuelEntry::getOdometer)
-                .max()
-                .orElse(0);
-            
-            int distanceTraveled = maxOdometer - minOdometer;
+        if (aggregate.getEntryCount() >= 2) {
+            int distanceTraveled = aggregate.getDistance();
             
             if (distanceTraveled > 0) {
                 // Formula: (totalFuel / (maxOdometer - minOdometer)) * 100
@@ -136,28 +469,83 @@ public class FuelService {
     }
     
     /**
-     * Validates that the new odometer reading is greater than all previous readings
+     * Get the running aggregate for a car, building it from stored entries on first access
+     * 
+     * @param carId ID of the car
+     * @return Current aggregate for the car
+     */
+    private FuelAggregate aggregateOf(Long carId) {
+        return partitionOf(carId).aggregates.computeIfAbsent(carId, fuelEntryRepository::aggregateByCarId);
+    }
+    
+    /**
+     * Get the prefix index of a car, building it from stored entries on first access
+     * Built under the car's write lock so that no concurrent write is missed
      * 
      * @param carId ID of the car
+     * @return Prefix index of the car
+     */
+    private FuelPrefixIndex prefixIndexOf(Long carId) {
+        ConcurrentHashMap<Long, FuelPrefixIndex> prefixIndexes = partitionOf(carId).prefixIndexes;
+        FuelPrefixIndex index = prefixIndexes.get(carId);
+        if (index != null) {
+            return index;
+        }
+        return carWriteLocks.withCarLock(carId, () -> prefixIndexes.computeIfAbsent(
+            carId, id -> FuelPrefixIndex.of(fuelEntryRepository.findByCarId(id))));
+    }
+    
+    /**
+     * Extend a car's prefix index, if built, with newly saved entries
+     * Must be called under the car's write lock
+     */
+    private void appendToPrefixIndex(Long carId, List<FuelEntry> saved) {
+        FuelPrefixIndex index = partitionOf(carId).prefixIndexes.get(carId);
+        if (index != null) {
+            saved.forEach(index::append);
+        }
+    }
+    
+    private Partition partitionOf(Long carId) {
+        return partitions[carWriteLocks.partitionOf(carId)];
+    }
+    
+    private static boolean isNumeric(String value) {
+        return value == null || value.trim().matches("-?\\d+");
+    }
+    
+    private static long parseOdometerBound(String name, String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be an odometer reading, got: " + value);
+        }
+    }
+    
+    /**
+     * Validates that the new odometer reading is greater than all previous readings
+     * Uses the highest reading tracked by the running aggregate
+     * 
+     * @param aggregate Current aggregate of the car
      * @param newOdometer New odometer reading
      * @throws IllegalArgumentException if odometer reading is not valid
      */
-    private void validateOdometerReading(Long carId, Integer newOdometer) {
-        List<FuelEntry> existingEntries = fuelEntryRepository.findByCarId(carId);
-        
-        if (!existingEntries.isEmpty()) {
-            FuelEntry lastEntry = existingEntries.stream()
-                .max(Comparator.comparing(FuelEntry::getOdometer))
-                .orElse(null);
-            
-            if (lastEntry != null && newOdometer <= lastEntry.getOdometer()) {
-                String errorMsg = String.format(
-                    "Invalid odometer reading: %d. Must be greater than the last reading: %d",
-                    newOdometer, lastEntry.getOdometer()
-                );
-                logger.error(errorMsg);
-                throw new IllegalArgumentException(errorMsg);
-            }
+    private void validateOdometerReading(FuelAggregate aggregate, Integer newOdometer) {
+        if (aggregate.getEntryCount() > 0 && newOdometer <= aggregate.getMaxOdometer()) {
+            String errorMsg = String.format(
+                "Invalid odometer reading: %d. Must be greater than the last reading: %d",
+                newOdometer, aggregate.getMaxOdometer()
+            );
+            logger.error(errorMsg);
+            throw new IllegalArgumentException(errorMsg);
         }
     }
+    
+    /**
+     * Derived state of the cars of one write partition
+     */
+    private static final class Partition {
+        private final ConcurrentHashMap<Long, FuelAggregate> aggregates = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, FuelPrefixIndex> prefixIndexes = new ConcurrentHashMap<>();
+    }
 }
@@ -0,0 +1,27 @@
+package com.carmanagement.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Per-car write locks
+ * Serializes mutations of a single car's fuel history while writes to
+ * different cars proceed without contending on a shared lock
+ * The action runs on the calling thread
+ */
+public class PerCarWriteLocks implements CarWriteLocks {
+
+    private final ConcurrentHashMap<Long, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    @Override
+    public <T> T withCarLock(Long carId, Supplier<T> action) {
+        ReentrantLock lock = locks.computeIfAbsent(carId, id -> new ReentrantLock());
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
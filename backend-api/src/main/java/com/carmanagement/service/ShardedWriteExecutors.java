@@ -0,0 +1,97 @@
+package com.carmanagement.service;
+
+import com.carmanagement.repository.ShardedFuelEntryStore;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Single-writer executors, one per storage shard
+ * Each car's mutations run on the one thread that owns the car's shard
+ * (ShardedFuelEntryStore.shardOf), so a shard's data is only ever written
+ * by its own thread and writes to different shards share no locks or
+ * counters. Each shard is also a write partition, so the derived state of
+ * FuelService, FuelRollups and FuelLeaderboard is split per shard as well
+ *
+ * The calling thread waits for the result, so every write pays one queue
+ * handoff and one wake-up of the caller; an action that already runs on the
+ * owning thread is run inline. Reads never go through the executors: they
+ * read the immutable aggregates, rankings and rollups each writer publishes
+ * In durable mode every shard still appends to the one WriteAheadLog, whose
+ * group commit then bounds write throughput
+ */
+public class ShardedWriteExecutors implements CarWriteLocks, AutoCloseable {
+
+    private final ExecutorService[] executors;
+    private final Thread[] writers;
+
+    /**
+     * Start one writer thread per shard
+     * @param shardCount Number of shards, matching the fuel entry store
+     * @throws IllegalArgumentException if shardCount is not positive
+     */
+    public ShardedWriteExecutors(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive, got: " + shardCount);
+        }
+        executors = new ExecutorService[shardCount];
+        writers = new Thread[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            int shard = i;
+            executors[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "shard-writer-" + shard);
+                thread.setDaemon(true);
+                writers[shard] = thread;
+                return thread;
+            });
+        }
+    }
+
+    @Override
+    public <T> T withCarLock(Long carId, Supplier<T> action) {
+        int shard = partitionOf(carId);
+        if (Thread.currentThread() == writers[shard]) {
+            return action.get();
+        }
+        Future<T> result = executors[shard].submit(action::get);
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shard " + shard, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    @Override
+    public int partitionCount() {
+        return executors.length;
+    }
+
+    @Override
+    public int partitionOf(Long carId) {
+        return ShardedFuelEntryStore.shardOf(carId, executors.length);
+    }
+
+    /**
+     * Stop the writer threads once queued writes have run
+     */
+    @Override
+    public void close() {
+        for (ExecutorService executor : executors) {
+            executor.shutdown();
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.carmanagement.servlet;
 
 import com.carmanagement.dto.ApiResponse;
+import com.carmanagement.dto.CarFuelStats;
 import com.carmanagement.dto.FuelStats;
 import com.carmanagement.exception.CarNotFoundException;
 import com.carmanagement.service.FuelService;
+import com.carmanagement.util.ETags;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -15,20 +20,36 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * Custom Servlet for retrieving fuel statistics
  * Demonstrates servlet lifecycle management alongside Spring Boot
- * Accessible at: /servlet/fuel-stats?carId=<id>
+ * Accessible at: /servlet/fuel-stats?carId=<id>[,<id>...]
+ *
+ * Responses are written asynchronously: the request is put in async mode and
+ * a WriteListener streams JSON chunks straight to the response OutputStream
+ * whenever the container reports it ready, so slow clients do not hold a
+ * container thread
+ *
+ * Responses carry a strong ETag built from the cars' versions; a matching
+ * If-None-Match is answered with 304 before any statistics are computed
  */
 @Component
 public class FuelStatsServlet extends HttpServlet {
     
     private static final Logger logger = LoggerFactory.getLogger(FuelStatsServlet.class);
     private static final long serialVersionUID = 1L;
+    private static final int MAX_CAR_IDS = 500;
+    private static final long ASYNC_TIMEOUT_MS = 30_000L;
+    private static final byte[] BATCH_PREFIX =
+        "{\"success\":true,\"resp_msg\":\"Success\",\"resp_code\":100,\"data\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BATCH_SEPARATOR = ",".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BATCH_SUFFIX = "]}".getBytes(StandardCharsets.UTF_8);
     
     private final FuelService fuelService;
     private final ObjectMapper objectMapper;
@@ -46,7 +67,9 @@ public class FuelStatsServlet extends HttpServlet {
     
     /**
      * Handle GET requests for fuel statistics
-     * 
+     * A single carId returns that car's statistics; a comma-separated list
+     * returns one entry per car, with per-car errors instead of a failed request
+     *
      * @param req HttpServletRequest
      * @param resp HttpServletResponse
      * @throws IOException if writing to response fails
@@ -65,64 +88,190 @@ public class FuelStatsServlet extends HttpServlet {
             
             // Validate parameter presence
             if (carIdParam == null || carIdParam.trim().isEmpty()) {
-                sendErrorResponse(resp, HttpServletResponse.SC_BAD_REQUEST, 
+                sendErrorResponse(resp, HttpServletResponse.SC_BAD_REQUEST,
                     "Missing required parameter: carId", "MISSING_PARAMETER");
                 return;
             }
             
-            // Parse to Long, handling NumberFormatException
-            Long carId;
+            // Parse comma-separated IDs to Long, handling NumberFormatException
+            List<Long> carIds = new ArrayList<>();
             try {
-                carId = Long.parseLong(carIdParam.trim());
+                for (String part : carIdParam.split(",")) {
+                    carIds.add(Long.parseLong(part.trim()));
+                }
             } catch (NumberFormatException e) {
                 logger.error("Invalid carId format: {}", carIdParam);
-                sendErrorResponse(resp, HttpServletResponse.SC_BAD_REQUEST, 
-                    "Invalid carId format. Must be a valid number.", "INVALID_FORMAT");
+                sendErrorResponse(resp, HttpServletResponse.SC_BAD_REQUEST,
+                    "Invalid carId format. Must be a valid number or a comma-separated list of numbers.",
+                    "INVALID_FORMAT");
                 return;
             }
             
-            // Invoke service to get statistics
-            FuelStats stats = fuelService.calculateStatistics(carId);
+            if (carIds.size() > MAX_CAR_IDS) {
+                sendErrorResponse(resp, HttpServletResponse.SC_BAD_REQUEST,
+                    "Too many carId values. At most " + MAX_CAR_IDS + " are allowed.", "TOO_MANY_IDS");
+                return;
+            }
+            
+            // Read versions first so the ETag never labels older content as newer
+            String etag;
+            if (carIds.size() == 1) {
+                etag = ETags.forStats(carIds.get(0), fuelService.getVersion(carIds.get(0)));
+            } else {
+                long[] versions = new long[carIds.size()];
+                for (int i = 0; i < versions.length; i++) {
+                    versions[i] = versionOrMissing(carIds.get(i));
+                }
+                etag = ETags.forStats(carIds, versions);
+            }
+            
+            resp.setHeader("ETag", etag);
+            if (ETags.matches(req.getHeader("If-None-Match"), etag)) {
+                resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                logger.info("Fuel statistics not modified for car IDs: {}", carIds);
+                return;
+            }
             
-            // Wrap in ApiResponse and serialize
-            ApiResponse<FuelStats> response = ApiResponse.success(stats);
-            String jsonResponse = objectMapper.writeValueAsString(response);
+            Iterator<byte[]> chunks;
+            if (carIds.size() == 1) {
+                // Invoke service up front so a missing car still maps to 404
+                FuelStats stats = fuelService.calculateStatistics(carIds.get(0));
+                chunks = List.of(objectMapper.writeValueAsBytes(ApiResponse.success(stats))).iterator();
+            } else {
+                chunks = new BatchChunks(carIds);
+            }
             
-            // Write JSON to response output stream
             resp.setStatus(HttpServletResponse.SC_OK);
-            PrintWriter writer = resp.getWriter();
-            writer.write(jsonResponse);
-            writer.flush();
+            streamAsync(req, resp, chunks);
             
-            logger.info("Successfully returned fuel statistics for car ID: {}", carId);
+            logger.info("Streaming fuel statistics for car IDs: {}", carIds);
             
         } catch (CarNotFoundException e) {
             logger.error("Car not found in servlet: {}", e.getMessage());
-            sendErrorResponse(resp, HttpServletResponse.SC_NOT_FOUND, 
+            sendErrorResponse(resp, HttpServletResponse.SC_NOT_FOUND,
                 e.getMessage(), "CAR_NOT_FOUND");
             
         } catch (IllegalArgumentException e) {
             logger.error("Invalid argument in servlet: {}", e.getMessage());
-            sendErrorResponse(resp, HttpServletResponse.SC_BAD_REQUEST, 
+            sendErrorResponse(resp, HttpServletResponse.SC_BAD_REQUEST,
                 e.getMessage(), "INVALID_ARGUMENT");
             
         } catch (Exception e) {
             logger.error("Unexpected error in servlet", e);
-            sendErrorResponse(resp, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, 
+            sendErrorResponse(resp, HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
                 "An unexpected error occurred", "INTERNAL_ERROR");
         }
     }
     
+    /**
+     * Version of a car's fuel history, or -1 if the car does not exist
+     */
+    private long versionOrMissing(Long carId) {
+        try {
+            return fuelService.getVersion(carId);
+        } catch (CarNotFoundException e) {
+            return -1L;
+        }
+    }
+    
+    /**
+     * Switch the request to async mode and write chunks with non-blocking output
+     *
+     * @param req HttpServletRequest
+     * @param resp HttpServletResponse
+     * @param chunks JSON byte chunks, produced lazily as the client accepts data
+     * @throws IOException if the output stream cannot be obtained
+     */
+    private void streamAsync(HttpServletRequest req, HttpServletResponse resp, Iterator<byte[]> chunks)
+            throws IOException {
+        AsyncContext asyncContext = req.startAsync();
+        asyncContext.setTimeout(ASYNC_TIMEOUT_MS);
+        ServletOutputStream out = resp.getOutputStream();
+        
+        out.setWriteListener(new WriteListener() {
+            @Override
+            public void onWritePossible() throws IOException {
+                while (out.isReady()) {
+                    if (!chunks.hasNext()) {
+                        asyncContext.complete();
+                        return;
+                    }
+                    out.write(chunks.next());
+                }
+            }
+            
+            @Override
+            public void onError(Throwable t) {
+                logger.error("Failed to stream fuel statistics", t);
+                asyncContext.complete();
+            }
+        });
+    }
+    
+    /**
+     * Lazily produces the JSON of a multi-car response, one car per chunk
+     */
+    private final class BatchChunks implements Iterator<byte[]> {
+        
+        private final List<Long> carIds;
+        private int next = -1;
+        
+        BatchChunks(List<Long> carIds) {
+            this.carIds = carIds;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return next <= carIds.size();
+        }
+        
+        @Override
+        public byte[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int index = next++;
+            if (index < 0) {
+                return BATCH_PREFIX;
+            }
+            if (index == carIds.size()) {
+                return BATCH_SUFFIX;
+            }
+            byte[] item = statsItem(carIds.get(index));
+            if (index == 0) {
+                return item;
+            }
+            byte[] chunk = new byte[BATCH_SEPARATOR.length + item.length];
+            System.arraycopy(BATCH_SEPARATOR, 0, chunk, 0, BATCH_SEPARATOR.length);
+            System.arraycopy(item, 0, chunk, BATCH_SEPARATOR.length, item.length);
+            return chunk;
+        }
+        
+        private byte[] statsItem(Long carId) {
+            CarFuelStats item;
+            try {
+                item = new CarFuelStats(carId, fuelService.calculateStatistics(carId), null);
+            } catch (CarNotFoundException | IllegalArgumentException e) {
+                item = new CarFuelStats(carId, null, e.getMessage());
+            }
+            try {
+                return objectMapper.writeValueAsBytes(item);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to serialize fuel statistics for car ID: " + carId, e);
+            }
+        }
+    }
+    
     /**
      * Send a JSON error response
-     * 
+     *
      * @param resp HttpServletResponse
      * @param statusCode HTTP status code
      * @param message Error message
      * @param errorCode Custom error code
      * @throws IOException if writing fails
      */
-    private void sendErrorResponse(HttpServletResponse resp, int statusCode, 
+    private void sendErrorResponse(HttpServletResponse resp, int statusCode,
                                    String message, String errorCode) throws IOException {
         resp.setStatus(statusCode);
         
@@ -133,10 +282,6 @@ public class FuelStatsServlet extends HttpServlet {
             null
         );
         
-        String jsonError = objectMapper.writeValueAsString(response);
-        
-        PrintWriter writer = resp.getWriter();
-        writer.write(jsonError);
-        writer.flush();
+        objectMapper.writeValue(resp.getOutputStream(), response);
     }
 }
@@ -0,0 +1,120 @@
+package com.carmanagement.util;
+
+import java.util.Arrays;
+
+/**
+ * Downsampling Utility
+ * Picks a subset of the points of a series for charting; both methods keep
+ * original points rather than synthesizing averages, so every returned value
+ * was actually observed
+ */
+public final class Downsampling {
+
+    private Downsampling() {
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets
+     * Keeps the first and last points and, from each of threshold - 2 equal
+     * buckets in between, the point forming the largest triangle with the
+     * point kept from the previous bucket and the average of the next bucket
+     *
+     * @param x X values, non-decreasing
+     * @param y Y values
+     * @param n Number of points in x and y to consider
+     * @param threshold Number of points to keep, at least 3
+     * @return Indexes of the kept points in ascending order
+     */
+    public static int[] lttb(double[] x, double[] y, int n, int threshold) {
+        if (threshold >= n || n <= 2) {
+            return all(n);
+        }
+        int[] selected = new int[threshold];
+        int count = 0;
+        selected[count++] = 0;
+
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        int previous = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket, or the last point for the final bucket
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, n);
+            if (bucket == threshold - 3) {
+                nextStart = n - 1;
+                nextEnd = n;
+            }
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            avgX /= nextEnd - nextStart;
+            avgY /= nextEnd - nextStart;
+
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                // Twice the triangle area; only the comparison matters
+                double area = Math.abs((x[previous] - avgX) * (y[i] - y[previous])
+                    - (x[previous] - x[i]) * (avgY - y[previous]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            selected[count++] = chosen;
+            previous = chosen;
+        }
+        selected[count++] = n - 1;
+        return selected;
+    }
+
+    /**
+     * Min/max per bucket
+     * Splits the series into threshold / 2 equal buckets and keeps the lowest
+     * and highest point of each, in their original order, so spikes survive
+     *
+     * @param y Y values
+     * @param n Number of points in y to consider
+     * @param threshold Maximum number of points to keep, at least 2
+     * @return Indexes of the kept points in ascending order
+     */
+    public static int[] minMax(double[] y, int n, int threshold) {
+        if (threshold >= n) {
+            return all(n);
+        }
+        int buckets = threshold / 2;
+        int[] selected = new int[buckets * 2];
+        int count = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int start = (int) ((long) bucket * n / buckets);
+            int end = (int) ((long) (bucket + 1) * n / buckets);
+            int min = start;
+            int max = start;
+            for (int i = start + 1; i < end; i++) {
+                if (y[i] < y[min]) {
+                    min = i;
+                }
+                if (y[i] > y[max]) {
+                    max = i;
+                }
+            }
+            selected[count++] = Math.min(min, max);
+            if (min != max) {
+                selected[count++] = Math.max(min, max);
+            }
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    private static int[] all(int n) {
+        int[] indexes = new int[n];
+        for (int i = 0; i < n; i++) {
+            indexes[i] = i;
+        }
+        return indexes;
+    }
+}
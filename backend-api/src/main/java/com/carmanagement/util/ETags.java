@@ -0,0 +1,97 @@
+package com.carmanagement.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * ETags Utility
+ * Builds strong entity tags from per-car versions
+ * Tags include a per-process token so that a restart without persistence,
+ * which can reuse car IDs and versions, never revalidates a stale copy
+ */
+public final class ETags {
+
+    private static final String INSTANCE = Long.toString(System.currentTimeMillis(), 36);
+
+    private ETags() {
+    }
+
+    /**
+     * ETag of a car representation including its fuel entries
+     */
+    public static String forCar(Long carId, long version) {
+        return quote("car-" + carId + "-" + version + "-" + INSTANCE);
+    }
+
+    /**
+     * ETag of a car's fuel statistics
+     */
+    public static String forStats(Long carId, long version) {
+        return quote("stats-" + carId + "-" + version + "-" + INSTANCE);
+    }
+
+    /**
+     * ETag of a car's fuel statistics over a window of its history
+     */
+    public static String forStats(Long carId, long version, String by, String from, String to) {
+        return quote("stats-" + carId + "-" + version + "-" + hash(by + "|" + from + "|" + to) + "-" + INSTANCE);
+    }
+
+    /**
+     * ETag of the fuel statistics of several cars, in request order
+     * A negative version marks a car that does not exist
+     */
+    public static String forStats(List<Long> carIds, long[] versions) {
+        StringBuilder key = new StringBuilder(carIds.size() * 12);
+        for (int i = 0; i < carIds.size(); i++) {
+            key.append(carIds.get(i)).append(':').append(versions[i]).append(',');
+        }
+        return quote("stats-" + hash(key.toString()) + "-" + INSTANCE);
+    }
+
+    /**
+     * Whether an If-None-Match header value matches an ETag
+     * Uses weak comparison, as required for If-None-Match
+     *
+     * @param ifNoneMatch Header value, may be null
+     * @param etag Current ETag
+     * @return true if the client's copy is current
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * First 128 bits of the SHA-256 of a key, URL-safe base64
+     */
+    private static String hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
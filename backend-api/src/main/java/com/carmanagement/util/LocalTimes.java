@@ -0,0 +1,31 @@
+package com.carmanagement.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * LocalTimes Utility
+ * Converts between stored epoch millis and the LocalDateTime values exposed
+ * by the API, in the server's default time zone as LocalDateTime.now() did
+ * before timestamps were stored as millis
+ */
+public final class LocalTimes {
+
+    private LocalTimes() {
+    }
+
+    /**
+     * Epoch millis of a local date-time in the server time zone
+     */
+    public static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Local date-time in the server time zone of epoch millis
+     */
+    public static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
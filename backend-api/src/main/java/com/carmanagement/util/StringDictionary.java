@@ -0,0 +1,46 @@
+package com.carmanagement.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * StringDictionary Utility
+ * Shares one String instance per distinct value of low-cardinality fields
+ * such as car brands and models, which fleets repeat across many cars
+ * Once MAX_ENTRIES distinct values are held, new values are kept as they are
+ */
+public final class StringDictionary {
+
+    private static final int MAX_ENTRIES = 65_536;
+    private static final ConcurrentHashMap<String, String> VALUES = new ConcurrentHashMap<>();
+
+    private StringDictionary() {
+    }
+
+    /**
+     * Canonical instance of a value
+     *
+     * @param value String to look up, may be null
+     * @return Shared instance equal to value, or value itself
+     */
+    public static String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String shared = VALUES.get(value);
+        if (shared != null) {
+            return shared;
+        }
+        if (VALUES.size() >= MAX_ENTRIES) {
+            return value;
+        }
+        shared = VALUES.putIfAbsent(value, value);
+        return shared != null ? shared : value;
+    }
+
+    /**
+     * Number of distinct values held
+     */
+    public static int size() {
+        return VALUES.size();
+    }
+}
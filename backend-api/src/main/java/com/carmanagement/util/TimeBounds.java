@@ -0,0 +1,58 @@
+package com.carmanagement.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * TimeBounds Utility
+ * Parses the from/to query parameters of time windows
+ * Accepts an ISO date-time, or an ISO date meaning the start (or, for an
+ * upper bound, the end) of that day; all times are in the server time zone
+ */
+public final class TimeBounds {
+
+    private TimeBounds() {
+    }
+
+    /**
+     * Parse a window bound as epoch millis
+     *
+     * @param name Parameter name, for the error message
+     * @param value Parameter value, null for an open bound
+     * @param upper Whether this is the inclusive upper bound
+     * @return Epoch millis, or Long.MIN_VALUE / Long.MAX_VALUE if open
+     * @throws IllegalArgumentException if the value is not an ISO date or date-time
+     */
+    public static long parseMillis(String name, String value, boolean upper) {
+        if (value == null) {
+            return upper ? Long.MAX_VALUE : Long.MIN_VALUE;
+        }
+        String text = value.trim();
+        try {
+            return LocalTimes.toMillis(LocalDateTime.parse(text));
+        } catch (DateTimeParseException e) {
+            // Fall through to a plain date
+        }
+        try {
+            LocalDate date = LocalDate.parse(text);
+            LocalDate boundary = upper ? date.plusDays(1) : date;
+            long millis = LocalTimes.toMillis(boundary.atStartOfDay());
+            return upper ? millis - 1 : millis;
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(
+                name + " must be an ISO date (2024-01-31) or date-time (2024-01-31T08:00:00), got: " + value);
+        }
+    }
+
+    /**
+     * Reject a window whose lower bound is after its upper bound
+     *
+     * @throws IllegalArgumentException if from &gt; to
+     */
+    public static void requireOrdered(long from, long to) {
+        if (from > to) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+    }
+}
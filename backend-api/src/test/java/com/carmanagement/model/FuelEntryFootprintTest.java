@@ -0,0 +1,183 @@
+package com.carmanagement.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+/**
+ * Guards the compact layout of fuel entries: one object per entry, with
+ * primitive fields and epoch-millis timestamps instead of boxed values and
+ * a LocalDateTime graph
+ * Also reports the footprint of cars and fuel entries before and after it
+ * The previous layout is reproduced by LegacyCar and LegacyFuelEntry: boxed
+ * fields, a LocalDateTime per entry and separate brand/model strings per car
+ * Bytes are retained heap per object graph, measured as the growth of used
+ * heap after a full GC while a batch of objects is reachable (JOL is not
+ * available); the table is printed with every run
+ */
+class FuelEntryFootprintTest {
+
+    private static final int COUNT = 200_000;
+
+    @Test
+    void entryFieldsArePrimitiveExceptTheCarReference() {
+        assertThat(instanceFields(FuelEntry.class))
+            .filteredOn(field -> field.getType() != Car.class)
+            .allMatch(field -> field.getType().isPrimitive(), "primitive");
+        assertThat(field(Car.class, "id").getType()).isEqualTo(long.class);
+        assertThat(field(Car.class, "year").getType()).isEqualTo(int.class);
+    }
+
+    @Test
+    void creatingAnEntryAllocatesOneSmallObject() {
+        com.sun.management.ThreadMXBean threads = threadBean();
+        assumeThat(threads).isNotNull();
+
+        Double liters = 40.0;
+        Double price = 70.0;
+        Integer odometer = 1000;
+        FuelEntry[] entries = new FuelEntry[COUNT];
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < COUNT; i++) {
+            entries[i] = new FuelEntry(liters, price, odometer);
+        }
+        long bytesPerEntry = (threads.getCurrentThreadAllocatedBytes() - before) / COUNT;
+        // Header plus two longs, two doubles, an int and a reference
+        assertThat(entries[COUNT - 1]).isNotNull();
+        assertThat(bytesPerEntry).isLessThanOrEqualTo(72);
+    }
+
+    @Test
+    void compactLayoutRetainsLessPerEntryAndPerCar() {
+        // Values as they arrive from JSON: fresh boxes and strings per request
+        double legacyEntry = retainedBytesPer(i -> new LegacyFuelEntry(
+            Long.valueOf(1_000L + i), Double.valueOf(40.0 + i), Double.valueOf(70.0 + i), Integer.valueOf(1_000 + i)));
+        double entry = retainedBytesPer(i -> {
+            FuelEntry fuelEntry = new FuelEntry(Double.valueOf(40.0 + i), Double.valueOf(70.0 + i),
+                Integer.valueOf(1_000 + i));
+            fuelEntry.setId(1_000L + i);
+            return fuelEntry;
+        });
+        double legacyCar = retainedBytesPer(i -> new LegacyCar(
+            Long.valueOf(1_000L + i), new String("Toyota"), new String("Corolla"), Integer.valueOf(1_990 + i % 35)));
+        double car = retainedBytesPer(i -> {
+            Car compact = new Car(new String("Toyota"), new String("Corolla"), 1_990 + i % 35);
+            compact.setId(1_000L + i);
+            return compact;
+        });
+
+        System.out.printf("%-10s %10s %10s%n", "bytes per", "before", "after");
+        System.out.printf("%-10s %10.1f %10.1f%n", "entry", legacyEntry, entry);
+        System.out.printf("%-10s %10.1f %10.1f%n", "car", legacyCar, car);
+
+        assertThat(entry).isLessThanOrEqualTo(72);
+        assertThat(entry).isLessThan(legacyEntry / 2);
+        assertThat(car).isLessThan(legacyCar / 2);
+    }
+
+    /**
+     * Retained heap per object created by a factory, averaged over COUNT objects
+     */
+    private static double retainedBytesPer(IntFunction<Object> factory) {
+        Object[] objects = new Object[COUNT];
+        long before = usedAfterGc();
+        for (int i = 0; i < COUNT; i++) {
+            objects[i] = factory.apply(i);
+        }
+        long after = usedAfterGc();
+        assertThat(objects[COUNT - 1]).isNotNull();
+        return (double) (after - before) / COUNT;
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // Repeat until a collection frees nothing more
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long current = runtime.totalMemory() - runtime.freeMemory();
+            if (current >= used) {
+                return current;
+            }
+            used = current;
+        }
+        return used;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+
+    private static Field[] instanceFields(Class<?> type) {
+        return Arrays.stream(type.getDeclaredFields())
+            .filter(field -> !Modifier.isStatic(field.getModifiers()))
+            .toArray(Field[]::new);
+    }
+
+    private static Field field(Class<?> type, String name) {
+        try {
+            return type.getDeclaredField(name);
+        } catch (NoSuchFieldException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Fuel entry layout before the compact model
+     */
+    @SuppressWarnings("unused")
+    private static final class LegacyFuelEntry {
+        private final Long id;
+        private final Double liters;
+        private final Double price;
+        private final Integer odometer;
+        private final LocalDateTime timestamp;
+        private LegacyCar car;
+
+        LegacyFuelEntry(Long id, Double liters, Double price, Integer odometer) {
+            this.id = id;
+            this.liters = liters;
+            this.price = price;
+            this.odometer = odometer;
+            this.timestamp = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Car layout before the compact model
+     */
+    @SuppressWarnings("unused")
+    private static final class LegacyCar {
+        private final Long id;
+        private final String brand;
+        private final String model;
+        private final Integer year;
+        private final List<LegacyFuelEntry> fuelEntries = new ArrayList<>();
+
+        LegacyCar(Long id, String brand, String model, Integer year) {
+            this.id = id;
+            this.brand = brand;
+            this.model = model;
+            this.year = year;
+        }
+    }
+}
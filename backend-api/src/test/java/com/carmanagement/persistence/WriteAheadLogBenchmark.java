@@ -0,0 +1,71 @@
+package com.carmanagement.persistence;
+
+import com.carmanagement.model.Car;
+import com.carmanagement.model.FuelEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append throughput of the write-ahead log per fsync policy and writer count
+ * Group commit should let ALWAYS scale with writers, since one force covers
+ * every record queued while the previous batch was written
+ * Not part of the default test run: mvn test -Dtest=WriteAheadLogBenchmark
+ */
+class WriteAheadLogBenchmark {
+
+    private static final long DURATION_MS = Long.getLong("benchmark.duration-ms", 2000);
+
+    @TempDir
+    Path root;
+
+    @Test
+    void appendThroughput() throws Exception {
+        System.out.printf("%-9s %8s %14s%n", "policy", "writers", "appends/s");
+        for (FsyncPolicy policy : FsyncPolicy.values()) {
+            for (int writers : new int[] {1, 4, 16, 64}) {
+                double rate = run(policy, writers);
+                System.out.printf("%-9s %8d %14.0f%n", policy, writers, rate);
+            }
+        }
+    }
+
+    private double run(FsyncPolicy policy, int writers) throws Exception {
+        Path directory = Files.createTempDirectory(root, policy.name());
+        WriteAheadLog log = new WriteAheadLog(directory, policy, 100);
+        log.replay(new WriteAheadLogTest.Recorder());
+        log.open();
+
+        Car car = WriteAheadLogTest.car(1L);
+        AtomicLong appends = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        long[] deadline = new long[1];
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        for (int w = 0; w < writers; w++) {
+            pool.submit(() -> {
+                start.await();
+                FuelEntry entry = WriteAheadLogTest.entry(car, 1);
+                while (System.nanoTime() < deadline[0]) {
+                    log.fuelEntrySaved(entry);
+                    appends.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        long began = System.nanoTime();
+        deadline[0] = began + TimeUnit.MILLISECONDS.toNanos(DURATION_MS);
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - began) / 1e9;
+        log.close();
+        return appends.get() / seconds;
+    }
+}
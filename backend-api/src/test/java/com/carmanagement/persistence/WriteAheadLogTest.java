@@ -0,0 +1,176 @@
+package com.carmanagement.persistence;
+
+import com.carmanagement.model.Car;
+import com.carmanagement.model.FuelEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysRecordsAppendedConcurrently() throws Exception {
+        WriteAheadLog log = new WriteAheadLog(directory, FsyncPolicy.OS, 100);
+        log.replay(new Recorder());
+        log.open();
+
+        Car car = car(1L);
+        log.carSaved(car);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 1; i <= 1000; i++) {
+            int id = i;
+            futures.add(pool.submit(() -> log.fuelEntrySaved(entry(car, id))));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        log.close();
+
+        Recorder recorder = new Recorder();
+        new WriteAheadLog(directory, FsyncPolicy.OS, 100).replay(recorder);
+        assertThat(recorder.cars).containsExactly(1L);
+        assertThat(recorder.entries).hasSize(1000).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void snapshotCoversEarlierGenerations() throws Exception {
+        WriteAheadLog log = new WriteAheadLog(directory, FsyncPolicy.ALWAYS, 100);
+        log.replay(new Recorder());
+        log.open();
+        Car car = car(7L);
+        log.carSaved(car);
+        log.fuelEntrySaved(entry(car, 1));
+        log.snapshot(writer -> {
+            writer.writeCar(car);
+            writer.writeFuelEntry(entry(car, 1));
+        });
+        log.fuelEntriesSaved(List.of(entry(car, 2), entry(car, 3)));
+        log.close();
+
+        Recorder recorder = new Recorder();
+        new WriteAheadLog(directory, FsyncPolicy.OS, 100).replay(recorder);
+        assertThat(recorder.cars).containsExactly(7L);
+        assertThat(recorder.entries).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void snapshotWaitsForLoggedRecordsToBePublished() throws Exception {
+        WriteAheadLog log = new WriteAheadLog(directory, FsyncPolicy.ALWAYS, 100);
+        log.replay(new Recorder());
+        log.open();
+        Car car = car(5L);
+        List<Car> published = new CopyOnWriteArrayList<>();
+        CountDownLatch logged = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        // A writer logs a car in generation 1 and stalls before publishing it
+        Future<?> writer = pool.submit(() -> log.publish(() -> {
+            log.carSaved(car);
+            logged.countDown();
+            awaitQuietly(release);
+            published.add(car);
+        }));
+        assertThat(logged.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<?> snapshot = pool.submit(() -> {
+            log.snapshot(out -> {
+                for (Car stored : published) {
+                    out.writeCar(stored);
+                }
+            });
+            return null;
+        });
+        Thread.sleep(200);
+        assertThat(snapshot.isDone()).isFalse();
+
+        release.countDown();
+        writer.get();
+        snapshot.get();
+        pool.shutdown();
+        log.close();
+
+        assertThat(directory.resolve("wal-1.log")).doesNotExist();
+        Recorder recorder = new Recorder();
+        new WriteAheadLog(directory, FsyncPolicy.OS, 100).replay(recorder);
+        assertThat(recorder.cars).containsExactly(5L);
+    }
+
+    @Test
+    void tornTailEndsOnlyItsGeneration() throws Exception {
+        WriteAheadLog log = new WriteAheadLog(directory, FsyncPolicy.OS, 100);
+        log.replay(new Recorder());
+        log.open();
+        Car car = car(3L);
+        log.carSaved(car);
+        log.close();
+        // Half a frame, as left behind by a write that failed part-way
+        Files.write(directory.resolve("wal-1.log"), new byte[] {0, 0, 0, 40, 2, 0},
+            java.nio.file.StandardOpenOption.APPEND);
+
+        WriteAheadLog reopened = new WriteAheadLog(directory, FsyncPolicy.OS, 100);
+        reopened.replay(new Recorder());
+        reopened.open();
+        reopened.fuelEntrySaved(entry(car, 1));
+        reopened.close();
+
+        Recorder recorder = new Recorder();
+        new WriteAheadLog(directory, FsyncPolicy.OS, 100).replay(recorder);
+        assertThat(recorder.cars).containsExactly(3L);
+        assertThat(recorder.entries).containsExactly(1L);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static Car car(long id) {
+        Car car = new Car("Toyota", "Corolla", 2020);
+        car.setId(id);
+        return car;
+    }
+
+    static FuelEntry entry(Car car, int id) {
+        FuelEntry entry = new FuelEntry(40.0, 60.0, 1000 * id);
+        entry.setId(id);
+        entry.setCar(car);
+        return entry;
+    }
+
+    static final class Recorder implements WriteAheadLog.ReplayHandler {
+
+        final List<Long> cars = new ArrayList<>();
+        final List<Long> entries = new ArrayList<>();
+
+        @Override
+        public void onCar(long id, String brand, String model, int year) {
+            cars.add(id);
+        }
+
+        @Override
+        public void onFuelEntry(long carId, long id, double liters, double price, int odometer,
+                                long timestampMillis) {
+            entries.add(id);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.carmanagement.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AppendOnlyListTest {
+
+    @Test
+    void keepsElementsInAppendOrderAcrossChunks() {
+        AppendOnlyList<Integer> list = new AppendOnlyList<>();
+        assertThat(list.last()).isNull();
+        for (int i = 0; i < 1000; i++) {
+            list.add(i);
+        }
+        assertThat(list).hasSize(1000);
+        assertThat(list.last()).isEqualTo(999);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(list.get(i)).isEqualTo(i);
+        }
+        assertThat(new ArrayList<>(list)).isEqualTo(list);
+        assertThatThrownBy(() -> list.get(1000)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void readersSeeEveryPublishedElementWhileTheWriterGrows() throws Exception {
+        int elements = 2_000_000;
+        int readers = 4;
+        AppendOnlyList<Integer> list = new AppendOnlyList<>();
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(readers + 1);
+
+        List<Future<Long>> checks = new ArrayList<>();
+        for (int r = 0; r < readers; r++) {
+            boolean iterate = r % 2 == 0;
+            checks.add(pool.submit(() -> {
+                start.await();
+                long reads = 0;
+                while (!done.get()) {
+                    int n = list.size();
+                    if (n == 0) {
+                        continue;
+                    }
+                    if (iterate) {
+                        int expected = 0;
+                        for (Integer value : list) {
+                            assertThat(value).isEqualTo(expected++);
+                            if (expected == 64) {
+                                break;
+                            }
+                        }
+                    }
+                    assertThat(list.get(n - 1)).isEqualTo(n - 1);
+                    assertThat(list.last()).isNotNull().isGreaterThanOrEqualTo(n - 1);
+                    reads++;
+                }
+                return reads;
+            }));
+        }
+        Future<?> writer = pool.submit(() -> {
+            start.await();
+            for (int i = 0; i < elements; i++) {
+                list.add(i);
+            }
+            done.set(true);
+            return null;
+        });
+
+        start.countDown();
+        writer.get();
+        for (Future<Long> check : checks) {
+            assertThat(check.get()).isPositive();
+        }
+        pool.shutdown();
+        assertThat(list).hasSize(elements);
+    }
+}
@@ -0,0 +1,115 @@
+package com.carmanagement.repository;
+
+import com.carmanagement.model.Car;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CarRepositorySearchTest {
+
+    private static final String[] BRANDS = {"Toyota", "Ford", "BMW", "Audi"};
+    private static final String[] MODELS = {"Corolla", "Camry", "Focus", "Fiesta", "X5", "A4", "A6"};
+
+    private CarRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CarRepository();
+        repository.save(new Car("Toyota", "Corolla", 2018));
+        repository.save(new Car("Toyota", "Camry", 2021));
+        repository.save(new Car("Ford", "Focus", 2019));
+        repository.save(new Car("ford", "Fiesta", 2015));
+        repository.save(new Car("BMW", "X5", 2022));
+    }
+
+    @Test
+    void brandMatchesCaseInsensitively() {
+        assertThat(models(repository.search("FORD", null, null, null, null, 10)))
+            .containsExactly("Focus", "Fiesta");
+    }
+
+    @Test
+    void modelPrefixAndYearRangeCombine() {
+        assertThat(models(repository.search(null, "c", null, null, null, 10)))
+            .containsExactly("Corolla", "Camry");
+        assertThat(models(repository.search("toyota", "CA", 2020, null, null, 10)))
+            .containsExactly("Camry");
+        assertThat(models(repository.search(null, null, 2018, 2019, null, 10)))
+            .containsExactly("Corolla", "Focus");
+    }
+
+    @Test
+    void noMatchOrAnEmptyYearRangeReturnsNothing() {
+        assertThat(repository.search("Honda", null, null, null, null, 10)).isEmpty();
+        assertThat(repository.search(null, "z", null, null, null, 10)).isEmpty();
+        assertThat(repository.search(null, null, 2022, 2018, null, 10)).isEmpty();
+    }
+
+    @Test
+    void pagesAreOrderedByIdAndContinueAfterTheCursor() {
+        List<Car> first = repository.search(null, null, null, null, null, 2);
+        assertThat(first).extracting(Car::getId).containsExactly(1L, 2L);
+
+        List<Car> second = repository.search(null, null, null, null, first.get(1).getId(), 2);
+        assertThat(second).extracting(Car::getId).containsExactly(3L, 4L);
+
+        assertThat(repository.search("ford", null, null, null, 3L, 10)).extracting(Car::getId)
+            .containsExactly(4L);
+    }
+
+    @Test
+    void resultsMatchAFilterOverEveryCar() {
+        repository.clear();
+        Random random = new Random(5);
+        for (int i = 0; i < 2_000; i++) {
+            Car car = new Car(BRANDS[random.nextInt(BRANDS.length)],
+                MODELS[random.nextInt(MODELS.length)] + "-" + i, 1990 + random.nextInt(35));
+            repository.save(car);
+        }
+        List<Car> all = repository.findAll();
+
+        for (int i = 0; i < 200; i++) {
+            String brand = random.nextBoolean() ? BRANDS[random.nextInt(BRANDS.length)] : null;
+            String prefix = random.nextBoolean() ? MODELS[random.nextInt(MODELS.length)].substring(0, 1) : null;
+            Integer yearFrom = random.nextBoolean() ? 1990 + random.nextInt(35) : null;
+            Integer yearTo = random.nextBoolean() ? 1990 + random.nextInt(35) : null;
+
+            List<Long> expected = new ArrayList<>();
+            for (Car car : all) {
+                if ((brand == null || car.getBrand().equalsIgnoreCase(brand))
+                        && (prefix == null || car.getModel().toLowerCase(Locale.ROOT)
+                            .startsWith(prefix.toLowerCase(Locale.ROOT)))
+                        && (yearFrom == null || car.getYear() >= yearFrom)
+                        && (yearTo == null || car.getYear() <= yearTo)) {
+                    expected.add(car.getId());
+                }
+            }
+
+            // Walk the results page by page
+            List<Long> actual = new ArrayList<>();
+            Long after = null;
+            List<Car> page;
+            do {
+                page = repository.search(brand, prefix, yearFrom, yearTo, after, 37);
+                page.forEach(car -> actual.add(car.getId()));
+                if (!page.isEmpty()) {
+                    after = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == 37);
+
+            assertThat(actual).isEqualTo(expected);
+        }
+    }
+
+    private static List<String> models(List<Car> cars) {
+        List<String> models = new ArrayList<>();
+        cars.forEach(car -> models.add(car.getModel()));
+        return models;
+    }
+}
@@ -0,0 +1,68 @@
+package com.carmanagement.repository;
+
+import com.carmanagement.model.Car;
+import com.carmanagement.model.FuelAggregate;
+import com.carmanagement.model.FuelEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarFuelEntryStoreTest {
+
+    @Test
+    void readersSeeCompleteEntriesWhileColumnsGrow() throws Exception {
+        int entries = 300_000;
+        ColumnarFuelEntryStore store = new ColumnarFuelEntryStore();
+        Car car = new Car("Toyota", "Corolla", 2020);
+        car.setId(1L);
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+
+        Future<Long> aggregates = pool.submit(() -> {
+            long reads = 0;
+            while (!done.get()) {
+                FuelAggregate aggregate = store.aggregateByCarId(1L);
+                long n = aggregate.getEntryCount();
+                if (n > 0) {
+                    assertThat(aggregate.getTotalLiters()).isEqualTo(10.0 * n);
+                    assertThat(aggregate.getMaxOdometer()).isEqualTo(n);
+                }
+                reads++;
+            }
+            return reads;
+        });
+        Future<Long> iterations = pool.submit(() -> {
+            long reads = 0;
+            while (!done.get()) {
+                int expected = 1;
+                for (FuelEntry entry : store.entriesOf(1L)) {
+                    assertThat(entry.getOdometer()).isEqualTo(expected++);
+                    assertThat(entry.getLiters()).isEqualTo(10.0);
+                    if (expected > 64) {
+                        break;
+                    }
+                }
+                reads++;
+            }
+            return reads;
+        });
+        pool.submit(() -> {
+            for (int i = 1; i <= entries; i++) {
+                FuelEntry entry = new FuelEntry(10.0, 20.0, i);
+                entry.setCar(car);
+                store.save(entry);
+            }
+            done.set(true);
+        }).get();
+
+        assertThat(aggregates.get()).isPositive();
+        assertThat(iterations.get()).isPositive();
+        pool.shutdown();
+        assertThat(store.findByCarId(1L)).hasSize(entries);
+    }
+}
@@ -0,0 +1,57 @@
+package com.carmanagement.repository;
+
+import com.carmanagement.model.Car;
+import com.carmanagement.model.FuelEntry;
+import com.carmanagement.persistence.FsyncPolicy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedFuelEntryStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reloadedRecordsBelongToTheRestoredCar() throws Exception {
+        Car car = car(1L);
+        try (MappedFuelEntryStore store = new MappedFuelEntryStore(directory, 4, FsyncPolicy.ALWAYS, 100)) {
+            for (int i = 1; i <= 6; i++) {
+                store.save(entry(car, 1000 * i));
+            }
+        }
+
+        try (MappedFuelEntryStore store = new MappedFuelEntryStore(directory, 4, FsyncPolicy.OS, 100)) {
+            assertThat(store.orphanedCarIds()).containsExactly(1L);
+            Car recovered = car(1L);
+            store.restoreCar(recovered);
+            assertThat(store.orphanedCarIds()).isEmpty();
+
+            List<FuelEntry> entries = store.findByCarId(1L);
+            assertThat(entries).extracting(FuelEntry::getOdometer)
+                .containsExactly(1000, 2000, 3000, 4000, 5000, 6000);
+            assertThat(entries).allSatisfy(entry -> assertThat(entry.getCar()).isSameAs(recovered));
+            assertThat(store.aggregateByCarId(1L).getEntryCount()).isEqualTo(6);
+
+            FuelEntry next = entry(recovered, 7000);
+            store.save(next);
+            assertThat(next.getId()).isEqualTo(7);
+        }
+    }
+
+    private static Car car(long id) {
+        Car car = new Car("Toyota", "Corolla", 2020);
+        car.setId(id);
+        return car;
+    }
+
+    private static FuelEntry entry(Car car, int odometer) {
+        FuelEntry entry = new FuelEntry(40.0, 60.0, odometer);
+        entry.setCar(car);
+        return entry;
+    }
+}
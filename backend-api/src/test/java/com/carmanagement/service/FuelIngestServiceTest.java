@@ -0,0 +1,49 @@
+package com.carmanagement.service;
+
+import com.carmanagement.dto.FuelBatchResult;
+import com.carmanagement.dto.FuelEntryRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FuelIngestServiceTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rejectsFractionalAndOutOfRangeIntegers() throws Exception {
+        FuelService fuelService = mock(FuelService.class);
+        when(fuelService.addFuelEntries(eq(1L), anyList()))
+            .thenAnswer(call -> new FuelBatchResult(((List<?>) call.getArgument(1)).size(), 0, List.of()));
+        FuelIngestService ingest = new FuelIngestService(fuelService, new ObjectMapper(), 100);
+
+        String body = String.join("\n",
+            "{\"carId\":1,\"liters\":40,\"price\":60,\"odometer\":1000}",
+            "{\"carId\":1,\"liters\":40,\"price\":60,\"odometer\":1200.0}",
+            "{\"carId\":1,\"liters\":40,\"price\":60,\"odometer\":12.7}",
+            "{\"carId\":1.5,\"liters\":40,\"price\":60,\"odometer\":1300}",
+            "{\"carId\":1,\"liters\":40,\"price\":60,\"odometer\":3000000000}",
+            "{\"carId\":99999999999999999999,\"liters\":40,\"price\":60,\"odometer\":1400}");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ingest.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+
+        ArgumentCaptor<List<FuelEntryRequest>> requests = ArgumentCaptor.forClass(List.class);
+        verify(fuelService).addFuelEntries(eq(1L), requests.capture());
+        assertThat(requests.getValue()).extracting(FuelEntryRequest::getOdometer).containsExactly(1000, 1200);
+
+        String response = out.toString(StandardCharsets.UTF_8);
+        assertThat(response).contains("odometer must be a whole number", "carId must be a whole number");
+        assertThat(response).contains("\"type\":\"summary\",\"received\":6,\"accepted\":2,\"rejected\":4");
+    }
+}
@@ -0,0 +1,96 @@
+package com.carmanagement.service;
+
+import com.carmanagement.model.FuelAggregate;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FuelLeaderboardTest {
+
+    private static final int CARS = 200;
+
+    @Test
+    void ranksByConsumptionAcrossPartitions() {
+        FuelLeaderboard leaderboard = new FuelLeaderboard(new PartitionedLocks(4));
+        for (long carId = 1; carId <= 10; carId++) {
+            leaderboard.update(carId, aggregate(carId, 100));
+        }
+        // Fewer than two entries: no average, not ranked
+        leaderboard.update(11L, new FuelAggregate(5.0, 10.0, 100, 100, 1L));
+
+        assertThat(leaderboard.top(true, 3)).extracting(FuelLeaderboard.Ranking::getCarId)
+            .containsExactly(1L, 2L, 3L);
+        assertThat(leaderboard.top(false, 2)).extracting(FuelLeaderboard.Ranking::getCarId)
+            .containsExactly(10L, 9L);
+        assertThat(leaderboard.size()).isEqualTo(10);
+    }
+
+    @Test
+    void readersNeverSeeACarTwiceWhileItIsReRanked() throws Exception {
+        race(new PerCarWriteLocks());
+        race(new PartitionedLocks(4));
+    }
+
+    private void race(CarWriteLocks locks) throws Exception {
+        FuelLeaderboard leaderboard = new FuelLeaderboard(locks);
+        for (long carId = 1; carId <= CARS; carId++) {
+            leaderboard.update(carId, aggregate(carId, 100));
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        Future<Long> reader = pool.submit(() -> {
+            long reads = 0;
+            while (!done.get()) {
+                List<FuelLeaderboard.Ranking> top = leaderboard.top(reads % 2 == 0, CARS);
+                assertThat(top).extracting(FuelLeaderboard.Ranking::getCarId).doesNotHaveDuplicates();
+                reads++;
+            }
+            return reads;
+        });
+        pool.submit(() -> {
+            // Move cars back and forth across the whole ranking
+            for (int round = 0; round < 2_000; round++) {
+                for (long carId = 1; carId <= CARS; carId += 7) {
+                    leaderboard.update(carId, aggregate(round % 2 == 0 ? CARS + carId : carId, 100));
+                }
+            }
+            done.set(true);
+        }).get();
+
+        assertThat(reader.get()).isPositive();
+        pool.shutdown();
+        assertThat(leaderboard.size()).isEqualTo(CARS);
+    }
+
+    private static FuelAggregate aggregate(double liters, int distance) {
+        return new FuelAggregate(liters, 0.0, 0, distance, 2L);
+    }
+
+    /**
+     * Partitions without writer threads; the test itself is the single writer
+     */
+    private static final class PartitionedLocks extends PerCarWriteLocks {
+
+        private final int partitions;
+
+        PartitionedLocks(int partitions) {
+            this.partitions = partitions;
+        }
+
+        @Override
+        public int partitionCount() {
+            return partitions;
+        }
+
+        @Override
+        public int partitionOf(Long carId) {
+            return (int) Math.floorMod(carId, (long) partitions);
+        }
+    }
+}
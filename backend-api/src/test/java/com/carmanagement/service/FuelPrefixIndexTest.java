@@ -0,0 +1,118 @@
+package com.carmanagement.service;
+
+import com.carmanagement.model.FuelAggregate;
+import com.carmanagement.model.FuelEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class FuelPrefixIndexTest {
+
+    @Test
+    void odometerWindowsAreInclusiveAndMayBeOpen() {
+        FuelPrefixIndex index = FuelPrefixIndex.of(List.of(
+            entry(100, 10, 15, 1_000), entry(200, 20, 30, 2_000), entry(300, 30, 45, 3_000)));
+
+        FuelAggregate middle = index.rangeByOdometer(200, 300);
+        assertThat(middle.getEntryCount()).isEqualTo(2);
+        assertThat(middle.getTotalLiters()).isEqualTo(50.0);
+        assertThat(middle.getTotalCost()).isEqualTo(75.0);
+        assertThat(middle.getMinOdometer()).isEqualTo(200);
+        assertThat(middle.getMaxOdometer()).isEqualTo(300);
+
+        assertThat(index.rangeByOdometer(Long.MIN_VALUE, Long.MAX_VALUE).getEntryCount()).isEqualTo(3);
+        assertThat(index.rangeByOdometer(150, 250).getTotalLiters()).isEqualTo(20.0);
+        assertThat(index.rangeByOdometer(301, Long.MAX_VALUE)).isSameAs(FuelAggregate.EMPTY);
+    }
+
+    @Test
+    void timeWindowsUseTimestampsClampedToAppendOrder() {
+        // The clock stepped back for the third entry; it counts as recorded at 2000
+        FuelPrefixIndex index = FuelPrefixIndex.of(List.of(
+            entry(100, 10, 15, 1_000), entry(200, 20, 30, 2_000), entry(300, 30, 45, 1_500)));
+
+        assertThat(index.rangeByTime(1_000, 1_999).getEntryCount()).isEqualTo(1);
+        assertThat(index.rangeByTime(2_000, 2_000).getTotalLiters()).isEqualTo(50.0);
+        assertThat(index.rangeByTime(Long.MIN_VALUE, 999)).isSameAs(FuelAggregate.EMPTY);
+    }
+
+    @Test
+    void windowsMatchAScanOverTheEntries() {
+        Random random = new Random(42);
+        List<FuelEntry> entries = new ArrayList<>();
+        FuelPrefixIndex index = FuelPrefixIndex.of(List.of());
+        int odometer = 0;
+        for (int i = 0; i < 500; i++) {
+            odometer += 1 + random.nextInt(500);
+            FuelEntry entry = entry(odometer, 1 + random.nextInt(60), 1 + random.nextInt(100), i * 1_000L);
+            entries.add(entry);
+            index.append(entry);
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            long from = random.nextInt(odometer + 100) - 50;
+            long to = from + random.nextInt(20_000);
+            FuelAggregate expected = FuelAggregate.EMPTY;
+            for (FuelEntry entry : entries) {
+                if (entry.getOdometer() >= from && entry.getOdometer() <= to) {
+                    expected = expected.plus(entry);
+                }
+            }
+            FuelAggregate actual = index.rangeByOdometer(from, to);
+            assertThat(actual.getEntryCount()).isEqualTo(expected.getEntryCount());
+            assertThat(actual.getTotalLiters()).isCloseTo(expected.getTotalLiters(), within(1e-6));
+            assertThat(actual.getTotalCost()).isCloseTo(expected.getTotalCost(), within(1e-6));
+            if (expected.getEntryCount() > 0) {
+                assertThat(actual.getMinOdometer()).isEqualTo(expected.getMinOdometer());
+                assertThat(actual.getMaxOdometer()).isEqualTo(expected.getMaxOdometer());
+            }
+        }
+    }
+
+    @Test
+    void readersSeeConsistentTotalsWhileTheWriterGrows() throws Exception {
+        int entries = 500_000;
+        FuelPrefixIndex index = FuelPrefixIndex.of(List.of());
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        Future<Long> reader = pool.submit(() -> {
+            long reads = 0;
+            while (!done.get()) {
+                FuelAggregate all = index.rangeByOdometer(Long.MIN_VALUE, Long.MAX_VALUE);
+                long n = all.getEntryCount();
+                if (n > 0) {
+                    assertThat(all.getTotalLiters()).isEqualTo(10.0 * n);
+                    assertThat(all.getMaxOdometer()).isEqualTo(n);
+                }
+                reads++;
+            }
+            return reads;
+        });
+        pool.submit(() -> {
+            for (int i = 1; i <= entries; i++) {
+                index.append(entry(i, 10, 20, i));
+            }
+            done.set(true);
+        }).get();
+
+        assertThat(reader.get()).isPositive();
+        pool.shutdown();
+        assertThat(index.rangeByTime(Long.MIN_VALUE, Long.MAX_VALUE).getEntryCount()).isEqualTo(entries);
+    }
+
+    private static FuelEntry entry(int odometer, double liters, double price, long timestampMillis) {
+        FuelEntry entry = new FuelEntry(liters, price, odometer);
+        entry.setTimestampMillis(timestampMillis);
+        return entry;
+    }
+}
@@ -0,0 +1,111 @@
+package com.carmanagement.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.carmanagement.dto.CarRequest;
+import com.carmanagement.dto.FuelEntryRequest;
+import com.carmanagement.model.FuelAggregate;
+import com.carmanagement.model.FuelEntry;
+import com.carmanagement.repository.CarRepository;
+import com.carmanagement.repository.FuelEntryRepository;
+import com.carmanagement.repository.FuelEntryStore;
+import com.carmanagement.repository.HeapFuelEntryStore;
+import com.carmanagement.repository.ShardedFuelEntryStore;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent fuel entry submits for one car must not both pass the odometer
+ * check: the stored history stays strictly increasing and matches the
+ * running aggregate
+ */
+class FuelServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int READINGS = 2_000;
+    private static final Logger SERVICE_LOGGER = (Logger) LoggerFactory.getLogger(FuelService.class);
+    private static Level serviceLevel;
+
+    @BeforeAll
+    static void silenceRejections() {
+        // Every contested reading is logged as a rejection
+        serviceLevel = SERVICE_LOGGER.getLevel();
+        SERVICE_LOGGER.setLevel(Level.OFF);
+    }
+
+    @AfterAll
+    static void restoreLogging() {
+        SERVICE_LOGGER.setLevel(serviceLevel);
+    }
+
+    @Test
+    void concurrentSubmitsKeepOdometersIncreasingWithPerCarLocks() throws Exception {
+        race(new HeapFuelEntryStore(), new PerCarWriteLocks());
+    }
+
+    @Test
+    void concurrentSubmitsKeepOdometersIncreasingWithShardWriters() throws Exception {
+        try (ShardedWriteExecutors locks = new ShardedWriteExecutors(4)) {
+            race(new ShardedFuelEntryStore(4), locks);
+        }
+    }
+
+    private void race(FuelEntryStore store, CarWriteLocks locks) throws Exception {
+        FuelEntryRepository fuelEntryRepository = new FuelEntryRepository(store);
+        CarService carService = new CarService(new CarRepository(), fuelEntryRepository);
+        FuelService fuelService = new FuelService(fuelEntryRepository, carService, locks,
+            new FuelRollups(locks), new FuelLeaderboard(locks));
+        long carId = carService.createCar(new CarRequest("Toyota", "Corolla", 2020)).getId();
+
+        // Every thread submits the same readings, so each one is contested
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> submitters = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            submitters.add(pool.submit(() -> {
+                start.await();
+                for (int odometer = 1; odometer <= READINGS; odometer++) {
+                    try {
+                        fuelService.addFuelEntry(carId, new FuelEntryRequest(10.0, 20.0, odometer));
+                        accepted.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> submitter : submitters) {
+            submitter.get();
+        }
+        pool.shutdown();
+
+        List<FuelEntry> stored = fuelEntryRepository.findByCarId(carId);
+        assertThat(stored).hasSize(accepted.get());
+        assertThat(accepted.get() + rejected.get()).isEqualTo(THREADS * READINGS);
+        for (int i = 1; i < stored.size(); i++) {
+            assertThat(stored.get(i).getOdometer()).isGreaterThan(stored.get(i - 1).getOdometer());
+        }
+
+        FuelAggregate aggregate = fuelService.getAggregate(carId);
+        assertThat(aggregate.getEntryCount()).isEqualTo(stored.size());
+        assertThat(aggregate.getMaxOdometer()).isEqualTo(stored.get(stored.size() - 1).getOdometer());
+        assertThat(aggregate.getTotalLiters()).isEqualTo(10.0 * stored.size());
+        assertThat(fuelService.getVersion(carId)).isEqualTo(stored.size());
+    }
+}
@@ -0,0 +1,93 @@
+package com.carmanagement.service;
+
+import ch.qos.logback.classic.Level;
+import com.carmanagement.dto.CarRequest;
+import com.carmanagement.dto.FuelEntryRequest;
+import com.carmanagement.repository.CarRepository;
+import com.carmanagement.repository.FuelEntryRepository;
+import com.carmanagement.repository.FuelEntryStore;
+import com.carmanagement.repository.HeapFuelEntryStore;
+import com.carmanagement.repository.ShardedFuelEntryStore;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fuel entry write throughput of the sharded mode from 1 to N cores
+ * Each row runs one writer thread per shard, every writer adding entries to
+ * its own cars through FuelService, next to the heap mode with per-car locks
+ * under the same writers. Persistence is off, so the shared write-ahead log
+ * is not measured
+ * Not part of the default test run: mvn test -Dtest=ShardScalingBenchmark
+ */
+class ShardScalingBenchmark {
+
+    private static final long DURATION_MS = Long.getLong("benchmark.duration-ms", 2000);
+    private static final int CARS_PER_WRITER = 64;
+
+    @Test
+    void writeThroughput() throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("com.carmanagement")).setLevel(Level.WARN);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> counts = new ArrayList<>();
+        for (int n = 1; n < cores; n *= 2) {
+            counts.add(n);
+        }
+        counts.add(cores);
+
+        System.out.printf("%8s %16s %16s%n", "shards", "sharded/s", "heap/s");
+        for (int n : counts) {
+            ShardedWriteExecutors executors = new ShardedWriteExecutors(n);
+            double sharded = run(new ShardedFuelEntryStore(n), executors, n);
+            executors.close();
+            double heap = run(new HeapFuelEntryStore(), new PerCarWriteLocks(), n);
+            System.out.printf("%8d %16.0f %16.0f%n", n, sharded, heap);
+        }
+    }
+
+    private double run(FuelEntryStore store, CarWriteLocks locks, int writers) throws Exception {
+        FuelEntryRepository fuelEntryRepository = new FuelEntryRepository(store);
+        CarService carService = new CarService(new CarRepository(), fuelEntryRepository);
+        FuelService fuelService = new FuelService(fuelEntryRepository, carService, locks,
+            new FuelRollups(locks), new FuelLeaderboard(locks));
+
+        AtomicLong writes = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        long[] deadline = new long[1];
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        for (int w = 0; w < writers; w++) {
+            long[] cars = new long[CARS_PER_WRITER];
+            for (int c = 0; c < cars.length; c++) {
+                cars[c] = carService.createCar(new CarRequest("Brand" + w, "Model" + c, 2020)).getId();
+            }
+            pool.submit(() -> {
+                start.await();
+                int[] odometers = new int[cars.length];
+                long count = 0;
+                for (int i = 0; System.nanoTime() < deadline[0]; i++) {
+                    int c = i % cars.length;
+                    odometers[c] += 100;
+                    fuelService.addFuelEntry(cars[c], new FuelEntryRequest(40.0, 70.0, odometers[c]));
+                    count++;
+                }
+                writes.addAndGet(count);
+                return null;
+            });
+        }
+        long began = System.nanoTime();
+        deadline[0] = began + TimeUnit.MILLISECONDS.toNanos(DURATION_MS);
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - began) / 1e9;
+        return writes.get() / seconds;
+    }
+}
@@ -0,0 +1,95 @@
+package com.carmanagement.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DownsamplingTest {
+
+    @Test
+    void lttbKeepsTheEndpointsAndThresholdPointsInOrder() {
+        double[] x = sequence(1_000);
+        double[] y = noise(1_000, 7);
+
+        int[] selected = Downsampling.lttb(x, y, 1_000, 50);
+
+        assertThat(selected).hasSize(50);
+        assertThat(selected[0]).isZero();
+        assertThat(selected[49]).isEqualTo(999);
+        assertAscendingBelow(selected, 1_000);
+    }
+
+    @Test
+    void lttbKeepsAnIsolatedSpike() {
+        double[] x = sequence(300);
+        double[] y = new double[300];
+        y[137] = 100;
+
+        assertThat(Downsampling.lttb(x, y, 300, 10)).contains(137);
+    }
+
+    @Test
+    void lttbReturnsEveryPointWhenTheThresholdCoversTheSeries() {
+        assertThat(Downsampling.lttb(sequence(5), noise(5, 1), 5, 5)).containsExactly(0, 1, 2, 3, 4);
+        assertThat(Downsampling.lttb(sequence(2), noise(2, 1), 2, 3)).containsExactly(0, 1);
+    }
+
+    @Test
+    void lttbOnlyReadsTheFirstNPoints() {
+        double[] y = noise(200, 3);
+        int[] selected = Downsampling.lttb(sequence(200), y, 120, 12);
+
+        assertThat(selected).hasSize(12);
+        assertThat(selected[11]).isEqualTo(119);
+        assertAscendingBelow(selected, 120);
+    }
+
+    @Test
+    void minMaxKeepsTheExtremesOfEveryBucketInOrder() {
+        double[] y = noise(1_000, 11);
+        y[123] = -50;
+        y[877] = 50;
+
+        int[] selected = Downsampling.minMax(y, 1_000, 21);
+
+        assertThat(selected.length).isLessThanOrEqualTo(20);
+        assertThat(selected).contains(123, 877);
+        assertAscendingBelow(selected, 1_000);
+    }
+
+    @Test
+    void minMaxKeepsOnePointForAFlatBucket() {
+        double[] y = new double[100];
+
+        assertThat(Downsampling.minMax(y, 100, 4)).containsExactly(0, 50);
+        assertThat(Downsampling.minMax(y, 3, 4)).containsExactly(0, 1, 2);
+    }
+
+    private static void assertAscendingBelow(int[] selected, int n) {
+        for (int i = 0; i < selected.length; i++) {
+            assertThat(selected[i]).isBetween(0, n - 1);
+            if (i > 0) {
+                assertThat(selected[i]).isGreaterThan(selected[i - 1]);
+            }
+        }
+    }
+
+    private static double[] sequence(int n) {
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i;
+        }
+        return values;
+    }
+
+    private static double[] noise(int n, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = random.nextDouble() * 10;
+        }
+        return values;
+    }
+}
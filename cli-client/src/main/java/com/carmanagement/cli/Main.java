@@ -16,32 +16,56 @@ public class Main {
      * @param args Command-line arguments
      */
     public static void main(String[] args) {
-        try {
-            // Validate argument presence
-            if (args.length == 0) {
-                printUsageAndExit();
-            }
-            
+        // Validate argument presence
+        if (args.length == 0) {
+            printUsageAndExit();
+        }
+        
+        int exitCode;
+        try (ApiClient apiClient = new ApiClient()) {
             // Initialize components
-            ApiClient apiClient = new ApiClient();
             CommandParser parser = new CommandParser();
             CommandExecutor executor = new CommandExecutor(apiClient);
             
+            if (args[0].equalsIgnoreCase("shell")) {
+                // Keep the client and its connections warm across many commands
+                exitCode = runShell(parser, executor, args);
+            } else {
+                exitCode = runCommand(parser, executor, args);
+            }
+            
+        } catch (IllegalArgumentException e) {
+            // Handle invalid client configuration
+            System.err.println("VALIDATION ERROR: " + e.getMessage());
+            exitCode = 1;
+        }
+        
+        System.exit(exitCode);
+    }
+    
+    /**
+     * Parse and execute a single command, reporting failures on stderr
+     * 
+     * @param parser Command parser
+     * @param executor Command executor
+     * @param args Command name followed by its arguments
+     * @return Exit code: 0 on success, 1 on failure
+     */
+    static int runCommand(CommandParser parser, CommandExecutor executor, String[] args) {
+        try {
             // Parse command from arguments
             CommandParser.Command command = parser.parseCommand(args);
             
             // Execute command
             executor.execute(command);
-            
-            // Exit with success
-            System.exit(0);
+            return 0;
             
         } catch (CommandParser.InvalidCommandException e) {
             // Handle command parsing errors
             System.err.println("ERROR: " + e.getMessage());
             System.err.println();
             printUsage();
-            System.exit(1);
+            return 1;
             
         } catch (ApiClient.ApiException e) {
             // Handle API errors
@@ -51,24 +75,48 @@ public class Main {
             } else if (e.getStatusCode() == 400) {
                 System.err.println("Invalid request. Please check your input parameters.");
             }
-            System.exit(1);
+            return 1;
             
         } catch (java.io.IOException e) {
             // Handle connection errors
             System.err.println("CONNECTION ERROR: " + e.getMessage());
             System.err.println("Please ensure the API server is running and accessible.");
-            System.exit(1);
+            return 1;
             
         } catch (IllegalArgumentException e) {
             // Handle validation errors
             System.err.println("VALIDATION ERROR: " + e.getMessage());
-            System.exit(1);
+            return 1;
             
         } catch (Exception e) {
             // Handle unexpected errors
             System.err.println("UNEXPECTED ERROR: " + e.getMessage());
             e.printStackTrace();
-            System.exit(1);
+            return 1;
+        }
+    }
+    
+    /**
+     * Run shell mode
+     * 
+     * @param parser Command parser
+     * @param executor Command executor
+     * @param args "shell" optionally followed by --script <file>
+     * @return Exit code: 0 if every command succeeded, 1 otherwise
+     */
+    private static int runShell(CommandParser parser, CommandExecutor executor, String[] args) {
+        try {
+            CommandParser.Command command = parser.parseCommand(args);
+            String script = command.getParameters().get("script");
+            return new Shell(parser, executor).run(script == null || script.isEmpty() ? null : script);
+            
+        } catch (CommandParser.InvalidCommandException | IllegalArgumentException e) {
+            System.err.println("ERROR: " + e.getMessage());
+            return 1;
+            
+        } catch (java.io.IOException e) {
+            System.err.println("ERROR: Failed to read commands: " + e.getMessage());
+            return 1;
         }
     }
     
@@ -93,12 +141,16 @@ public class Main {
         System.out.println("  create-car  --brand <brand> --model <model> --year <year>");
         System.out.println("  add-fuel    --carId <id> --liters <amount> --price <cost> --odometer <reading>");
         System.out.println("  fuel-stats  --carId <id>");
+        System.out.println("  import      --file <path> [--format csv|ndjson] [--concurrency <n>] [--batch-size <n>]");
+        System.out.println("  shell       [--script <file>]");
         System.out.println("  help");
         System.out.println();
         System.out.println("Examples:");
         System.out.println("  java -jar car-cli.jar create-car --brand Toyota --model Corolla --year 2018");
         System.out.println("  java -jar car-cli.jar add-fuel --carId 1 --liters 45.5 --price 65.50 --odometer 10500");
         System.out.println("  java -jar car-cli.jar fuel-stats --carId 1");
+        System.out.println("  java -jar car-cli.jar import --file fuel-log.csv --concurrency 16");
+        System.out.println("  java -jar car-cli.jar shell --script commands.txt");
         System.out.println();
         System.out.println("For detailed help, run: java -jar car-cli.jar help");
     }
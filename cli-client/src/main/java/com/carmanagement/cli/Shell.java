@@ -0,0 +1,156 @@
+package com.carmanagement.cli;
+
+import com.carmanagement.cli.command.CommandExecutor;
+import com.carmanagement.cli.parser.CommandParser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Interactive shell mode
+ * Runs commands read from stdin or a script file in one JVM, reusing the same
+ * ApiClient and its open connections, and prints the time taken by each
+ * command. Blank lines and lines starting with # are ignored; exit or quit
+ * ends the session
+ */
+public class Shell {
+
+    private static final String PROMPT = "car> ";
+
+    private final CommandParser parser;
+    private final CommandExecutor executor;
+
+    /**
+     * Constructor with dependency injection
+     *
+     * @param parser Command parser
+     * @param executor Command executor shared by all commands of the session
+     */
+    public Shell(CommandParser parser, CommandExecutor executor) {
+        this.parser = parser;
+        this.executor = executor;
+    }
+
+    /**
+     * Run a session
+     *
+     * @param script Script file, or null to read stdin
+     * @return 0 if every command succeeded, 1 otherwise
+     * @throws IOException if the input cannot be read
+     */
+    public int run(String script) throws IOException {
+        boolean interactive = script == null && System.console() != null;
+        int commands = 0;
+        int failed = 0;
+        long sessionStart = System.nanoTime();
+
+        try (BufferedReader reader = script != null
+                ? Files.newBufferedReader(scriptPath(script), StandardCharsets.UTF_8)
+                : new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+            String line;
+            while (true) {
+                if (interactive) {
+                    System.out.print(PROMPT);
+                    System.out.flush();
+                }
+                line = reader.readLine();
+                if (line == null) {
+                    break;
+                }
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                if (line.equals("exit") || line.equals("quit")) {
+                    break;
+                }
+
+                List<String> args;
+                try {
+                    args = tokenize(line);
+                } catch (IllegalArgumentException e) {
+                    System.err.println("ERROR: " + e.getMessage());
+                    commands++;
+                    failed++;
+                    continue;
+                }
+                if (!args.isEmpty() && args.get(0).equalsIgnoreCase("shell")) {
+                    System.err.println("ERROR: Already in shell mode");
+                    commands++;
+                    failed++;
+                    continue;
+                }
+
+                long start = System.nanoTime();
+                int exitCode = Main.runCommand(parser, executor, args.toArray(new String[0]));
+                double elapsedMs = (System.nanoTime() - start) / 1_000_000.0;
+
+                commands++;
+                if (exitCode != 0) {
+                    failed++;
+                }
+                System.out.println("[" + (exitCode == 0 ? "ok" : "failed") + " in " +
+                    String.format("%.1f", elapsedMs) + " ms]");
+            }
+        }
+
+        double totalMs = (System.nanoTime() - sessionStart) / 1_000_000.0;
+        System.out.println("Session: " + commands + " commands, " + failed + " failed, " +
+            String.format("%.1f", totalMs) + " ms");
+        return failed == 0 ? 0 : 1;
+    }
+
+    private static Path scriptPath(String script) {
+        Path path = Paths.get(script);
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalArgumentException("Script not found: " + script);
+        }
+        return path;
+    }
+
+    /**
+     * Split a command line on whitespace, keeping single- or double-quoted text together
+     */
+    static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inToken = false;
+        char quote = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+                inToken = true;
+            } else if (Character.isWhitespace(c)) {
+                if (inToken) {
+                    tokens.add(current.toString());
+                    current.setLength(0);
+                    inToken = false;
+                }
+            } else {
+                current.append(c);
+                inToken = true;
+            }
+        }
+        if (quote != 0) {
+            throw new IllegalArgumentException("Unterminated quote in: " + line);
+        }
+        if (inToken) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+}
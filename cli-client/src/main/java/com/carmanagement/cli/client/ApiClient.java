@@ -2,6 +2,7 @@ package com.carmanagement.cli.client;
 
 import com.carmanagement.cli.model.ApiResponse;
 import com.carmanagement.cli.model.Car;
+import com.carmanagement.cli.model.FuelBatchResult;
 import com.carmanagement.cli.model.FuelEntry;
 import com.carmanagement.cli.model.FuelStats;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -11,90 +12,183 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * HTTP Client for Car Management API
  * Handles all REST API communications
+ *
+ * One client keeps its connections alive across calls. Requests prefer
+ * HTTP/2 and fall back to HTTP/1.1 when the server does not negotiate it.
+ * Every call is asynchronous underneath; the blocking methods wait on the
+ * async ones. At most api.max-in-flight requests are outstanding at a time,
+ * and callers block until a slot is free. Response bodies are parsed from
+ * the stream instead of being buffered into a String first
  */
-public class ApiClient {
+public class ApiClient implements AutoCloseable {
+
+    private static final String DEFAULT_BASE_URL = "http://localhost:8080";
+    private static final String DEFAULT_HTTP_VERSION = "HTTP_2";
+    private static final int DEFAULT_MAX_IN_FLIGHT = 64;
+    private static final Properties CONFIG = loadConfig();
+    private static final String BASE_URL = setting("api.base-url", DEFAULT_BASE_URL);
 
-    // private static final String BASE_URL = "http://localhost:8080";
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
-    private static final String DEFAULT_BASE_URL = "http://localhost:8080";
-    private static final String BASE_URL = loadBaseUrl();
+    private final ExecutorService executor;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
 
-    private static String loadBaseUrl() {
+    private static Properties loadConfig() {
         Properties props = new Properties();
 
         try {
             ClassLoader classLoader = ApiClient.class.getClassLoader();
             InputStream is = classLoader.getResourceAsStream("application.properties");
 
-            if (is == null) {
-                return DEFAULT_BASE_URL;
+            if (is != null) {
+                try (is) {
+                    props.load(is);
+                }
             }
-            props.load(is);
-            String baseUrl = props.getProperty("api.base-url");
-
-            if (baseUrl == null || baseUrl.trim().isEmpty()) {
-                return DEFAULT_BASE_URL;
-            }
-            return baseUrl;
 
         } catch (Exception e) {
             System.out.println("[CONFIG] ERROR while loading application.properties");
             e.printStackTrace();
-            return DEFAULT_BASE_URL;
         }
+        return props;
+    }
+
+    /**
+     * Read a setting from a system property, then application.properties
+     */
+    private static String setting(String key, String defaultValue) {
+        String value = System.getProperty(key, CONFIG.getProperty(key));
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        return value.trim();
     }
 
     /**
-     * Initialize API client with default HTTP client and JSON mapper
+     * Initialize API client from configuration
+     * api.http-version (HTTP_2 or HTTP_1_1) and api.max-in-flight
      */
     public ApiClient() {
+        this(parseVersion(setting("api.http-version", DEFAULT_HTTP_VERSION)),
+             parseMaxInFlight(setting("api.max-in-flight", String.valueOf(DEFAULT_MAX_IN_FLIGHT))));
+    }
+
+    /**
+     * Initialize API client with an explicit protocol version and concurrency limit
+     *
+     * @param version Preferred HTTP version
+     * @param maxInFlight Maximum number of outstanding requests
+     */
+    public ApiClient(HttpClient.Version version, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("api.max-in-flight must be positive, got: " + maxInFlight);
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "api-client-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+
         this.httpClient = HttpClient.newBuilder()
-                .version(HttpClient.Version.HTTP_1_1)
+                .version(version)
+                .executor(executor)
                 .build();
 
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
     }
 
+    private static HttpClient.Version parseVersion(String value) {
+        try {
+            return HttpClient.Version.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Invalid api.http-version: '" + value + "'. Must be HTTP_2 or HTTP_1_1.");
+        }
+    }
+
+    private static int parseMaxInFlight(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(
+                    "Invalid api.max-in-flight: '" + value + "'. Must be a valid number.");
+        }
+    }
+
+    /**
+     * Maximum number of outstanding requests
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
     /**
      * Create a new car
      */
     public Car createCar(String brand, String model, int year) throws IOException, ApiException {
+        return await(createCarAsync(brand, model, year));
+    }
+
+    /**
+     * Create a new car asynchronously
+     */
+    public CompletableFuture<Car> createCarAsync(String brand, String model, int year) {
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("brand", brand);
         requestBody.put("model", model);
         requestBody.put("year", year);
 
-        String jsonBody = objectMapper.writeValueAsString(requestBody);
+        return postJson("/api/cars", requestBody, new TypeReference<ApiResponse<Car>>() {
+        }, null);
+    }
 
+    /**
+     * Find a car by brand, model and year (case-insensitive) asynchronously
+     * Looks through the first page of the car search for an exact model match
+     *
+     * @return Future car without fuel entries, completing with null if there is no such car
+     */
+    public CompletableFuture<Car> findCarAsync(String brand, String model, int year) {
+        String query = "brand=" + URLEncoder.encode(brand, StandardCharsets.UTF_8)
+                + "&modelPrefix=" + URLEncoder.encode(model, StandardCharsets.UTF_8)
+                + "&yearFrom=" + year + "&yearTo=" + year + "&limit=1000";
         HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(BASE_URL + "/api/cars"))
-                .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
+                .uri(URI.create(BASE_URL + "/api/cars/search?" + query))
+                .header("Accept", "application/json")
+                .GET()
                 .build();
 
-        HttpResponse<String> response = sendRequest(request);
-
-        if (response.statusCode() == 201 || response.statusCode() == 200) {
-            ApiResponse<Car> apiResponse = objectMapper.readValue(
-                    response.body(),
-                    new TypeReference<ApiResponse<Car>>() {
-                    });
-            return apiResponse.getData();
-        } else {
-            throw handleErrorResponse(response);
-        }
+        return sendAsync(request, new TypeReference<ApiResponse<List<Car>>>() {
+        }, null).thenApply(cars -> cars.stream()
+                .filter(car -> car.getModel().equalsIgnoreCase(model))
+                .findFirst()
+                .orElse(null));
     }
 
     /**
@@ -102,80 +196,170 @@ public class ApiClient {
      */
     public FuelEntry addFuelEntry(Long carId, double liters, double price, int odometer)
             throws IOException, ApiException {
+        return await(addFuelEntryAsync(carId, liters, price, odometer));
+    }
+
+    /**
+     * Add a fuel entry to a car asynchronously
+     */
+    public CompletableFuture<FuelEntry> addFuelEntryAsync(Long carId, double liters, double price, int odometer) {
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("liters", liters);
         requestBody.put("price", price);
         requestBody.put("odometer", odometer);
 
-        String jsonBody = objectMapper.writeValueAsString(requestBody);
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(BASE_URL + "/api/cars/" + carId + "/fuel"))
-                .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
-                .build();
-
-        HttpResponse<String> response = sendRequest(request);
+        return postJson("/api/cars/" + carId + "/fuel", requestBody, new TypeReference<ApiResponse<FuelEntry>>() {
+        }, null);
+    }
 
-        if (response.statusCode() == 201 || response.statusCode() == 200) {
-            ApiResponse<FuelEntry> apiResponse = objectMapper.readValue(
-                    response.body(),
-                    new TypeReference<ApiResponse<FuelEntry>>() {
-                    });
-            return apiResponse.getData();
-        } else {
-            throw handleErrorResponse(response);
-        }
+    /**
+     * Add an ordered batch of fuel entries to a car asynchronously
+     * Each entry holds liters, price and odometer
+     */
+    public CompletableFuture<FuelBatchResult> addFuelEntriesAsync(Long carId, List<Map<String, Object>> entries) {
+        return postJson("/api/cars/" + carId + "/fuel/batch", entries,
+                new TypeReference<ApiResponse<FuelBatchResult>>() {
+                }, "Car not found with ID: " + carId);
     }
 
     /**
      * Get fuel statistics for a car
      */
     public FuelStats getFuelStatistics(Long carId) throws IOException, ApiException {
+        return await(getFuelStatisticsAsync(carId));
+    }
+
+    /**
+     * Get fuel statistics for a car asynchronously
+     */
+    public CompletableFuture<FuelStats> getFuelStatisticsAsync(Long carId) {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(BASE_URL + "/api/cars/" + carId + "/fuel/stats"))
                 .header("Accept", "application/json")
                 .GET()
                 .build();
 
-        HttpResponse<String> response = sendRequest(request);
+        return sendAsync(request, new TypeReference<ApiResponse<FuelStats>>() {
+        }, "Car not found with ID: " + carId);
+    }
 
-        if (response.statusCode() == 200) {
-            ApiResponse<FuelStats> apiResponse = objectMapper.readValue(
-                    response.body(),
-                    new TypeReference<ApiResponse<FuelStats>>() {
-                    });
-            return apiResponse.getData();
-        } else if (response.statusCode() == 404) {
-            throw new ApiException("Car not found with ID: " + carId, response.statusCode());
-        } else {
-            throw handleErrorResponse(response);
+    /**
+     * Release the client's threads; outstanding requests are abandoned
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> postJson(String path, Object body,
+                                              TypeReference<ApiResponse<T>> responseType, String notFoundMessage) {
+        byte[] jsonBody;
+        try {
+            jsonBody = objectMapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(BASE_URL + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(jsonBody))
+                .build();
+
+        return sendAsync(request, responseType, notFoundMessage);
+    }
+
+    /**
+     * Send HTTP request asynchronously with error handling
+     * Blocks while max-in-flight requests are outstanding; the slot is freed
+     * once the response body has been parsed
+     *
+     * @param request Request to send
+     * @param responseType ApiResponse type of a successful body
+     * @param notFoundMessage Message for a 404 response, null to use the server's
+     * @return Future data of the response; fails with ApiException or IOException
+     */
+    private <T> CompletableFuture<T> sendAsync(HttpRequest request, TypeReference<ApiResponse<T>> responseType,
+                                               String notFoundMessage) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(new IOException("Request interrupted", e));
         }
+
+        CompletableFuture<HttpResponse<InputStream>> response;
+        try {
+            response = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+
+        return response
+                .handle((result, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                        throw new CompletionException(new IOException("Failed to connect to API server at " +
+                                BASE_URL + ". Please ensure the server is running.", cause));
+                    }
+                    return result;
+                })
+                // Parse off the client's delivery threads; reading the stream blocks until data arrives
+                .thenApplyAsync(result -> readResponse(result, responseType, notFoundMessage), executor)
+                .whenComplete((result, error) -> inFlight.release());
     }
 
     /**
-     * Send HTTP request with error handling
+     * Parse a response body straight from its stream
      */
-    private HttpResponse<String> sendRequest(HttpRequest request) throws IOException {
+    private <T> T readResponse(HttpResponse<InputStream> response, TypeReference<ApiResponse<T>> responseType,
+                               String notFoundMessage) {
+        try (InputStream body = response.body()) {
+            int statusCode = response.statusCode();
+            if (statusCode == 201 || statusCode == 200) {
+                ApiResponse<T> apiResponse = objectMapper.readValue(body, responseType);
+                return apiResponse.getData();
+            } else if (statusCode == 404 && notFoundMessage != null) {
+                throw new ApiException(notFoundMessage, statusCode);
+            } else {
+                throw handleErrorResponse(statusCode, body.readAllBytes());
+            }
+        } catch (ApiException | IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Wait for an async call, rethrowing its failure as the blocking API does
+     */
+    private <T> T await(CompletableFuture<T> future) throws IOException, ApiException {
         try {
-            return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            return future.get();
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new IOException("Request interrupted", e);
-        } catch (IOException e) {
-            throw new IOException("Failed to connect to API server at " + BASE_URL +
-                    ". Please ensure the server is running.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ApiException) {
+                throw (ApiException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
         }
     }
 
     /**
      * Handle error responses from API
      */
-    private ApiException handleErrorResponse(HttpResponse<String> response) {
+    private ApiException handleErrorResponse(int statusCode, byte[] body) {
         try {
             // Try to parse error JSON into ApiResponse
             ApiResponse<Object> apiResponse = objectMapper.readValue(
-                    response.body(),
+                    body,
                     new TypeReference<ApiResponse<Object>>() {
                     });
 
@@ -183,13 +367,13 @@ public class ApiClient {
             if (message == null || message.isEmpty()) {
                 message = "Unknown error";
             }
-            return new ApiException(message, response.statusCode());
+            return new ApiException(message, statusCode);
 
         } catch (Exception e) {
             // If parsing fails, use raw response
             return new ApiException(
-                    "API error (HTTP " + response.statusCode() + "): " + response.body(),
-                    response.statusCode());
+                    "API error (HTTP " + statusCode + "): " + new String(body, StandardCharsets.UTF_8),
+                    statusCode);
         }
     }
 
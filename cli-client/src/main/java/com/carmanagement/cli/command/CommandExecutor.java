@@ -6,6 +6,10 @@ import com.carmanagement.cli.model.FuelEntry;
 import com.carmanagement.cli.model.FuelStats;
 import com.carmanagement.cli.parser.CommandParser.Command;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -14,6 +18,9 @@ import java.util.Map;
  */
 public class CommandExecutor {
     
+    private static final int DEFAULT_IMPORT_CONCURRENCY = 8;
+    private static final int DEFAULT_IMPORT_BATCH_SIZE = 500;
+    
     private final ApiClient apiClient;
     
     /**
@@ -45,6 +52,10 @@ public class CommandExecutor {
                 executeFuelStats(command.getParameters());
                 break;
             
+            case "import":
+                executeImport(command.getParameters());
+                break;
+            
             case "help":
                 executeHelp();
                 break;
@@ -178,6 +189,77 @@ public class CommandExecutor {
         System.out.println("=".repeat(50));
     }
     
+    /**
+     * Execute import command
+     * 
+     * @param params Command parameters
+     * @throws Exception if execution fails
+     */
+    private void executeImport(Map<String, String> params) throws Exception {
+        Path file = Paths.get(params.get("file"));
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("File not found: " + file);
+        }
+        
+        // Detect format from the extension unless given explicitly
+        String format = params.get("format");
+        if (format == null || format.isEmpty()) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            format = name.endsWith(".ndjson") || name.endsWith(".jsonl") ? "ndjson" : "csv";
+        }
+        if (!format.equals("csv") && !format.equals("ndjson")) {
+            throw new IllegalArgumentException("Invalid format: '" + format + "'. Must be csv or ndjson.");
+        }
+        
+        int concurrency = parseIntParameter(params, "concurrency", DEFAULT_IMPORT_CONCURRENCY);
+        int batchSize = parseIntParameter(params, "batch-size", DEFAULT_IMPORT_BATCH_SIZE);
+        
+        System.out.println("Importing " + file + " (" + format + ", " + concurrency + 
+            " parallel requests, batch size " + batchSize + ")...");
+        FuelImporter importer = new FuelImporter(apiClient, concurrency, batchSize);
+        FuelImporter.ImportResult result = importer.importFile(file, format.equals("ndjson"));
+        
+        // Format output
+        double seconds = result.getElapsedNanos() / 1_000_000_000.0;
+        System.out.println("\n" + "=".repeat(50));
+        System.out.println("  Import Summary");
+        System.out.println("=".repeat(50));
+        System.out.println("  Rows read:     " + result.getRows());
+        System.out.println("  Accepted:      " + result.getAccepted());
+        System.out.println("  Rejected:      " + result.getRejected());
+        System.out.println("  Cars created:  " + result.getCarsCreated());
+        System.out.println("  Elapsed:       " + String.format("%.2f", seconds) + " s");
+        System.out.println("  Throughput:    " + 
+            String.format("%.0f", seconds > 0 ? result.getRows() / seconds : 0.0) + " rows/s");
+        System.out.println("=".repeat(50));
+        
+        if (!result.getErrorCounts().isEmpty()) {
+            System.out.println("\nErrors by cause:");
+            result.getErrorCounts().entrySet().stream()
+                .limit(10)
+                .forEach(entry -> System.out.println("  " + entry.getValue() + " x " + entry.getKey()));
+            System.out.println("\nFirst rejected rows:");
+            result.getSampleErrors().forEach(error -> System.out.println("  " + error));
+        }
+    }
+    
+    /**
+     * Parse an optional positive integer parameter
+     */
+    private int parseIntParameter(Map<String, String> params, String name, int defaultValue) {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(
+                "Invalid " + name + " format: '" + value + "'. Must be a valid number."
+            );
+        }
+    }
+    
     /**
      * Display help information
      */
@@ -202,7 +284,21 @@ public class CommandExecutor {
         System.out.println("   Usage: fuel-stats --carId <id>");
         System.out.println("   Example: fuel-stats --carId 1");
         System.out.println();
-        System.out.println("4. help");
+        System.out.println("4. import");
+        System.out.println("   Bulk import cars and fuel entries from a CSV (with header) or NDJSON file");
+        System.out.println("   Columns/fields: carId or brand,model,year (car created if needed), liters, price, odometer");
+        System.out.println("   Rows of a car must be in odometer order; different cars upload in parallel");
+        System.out.println("   Usage: import --file <path> [--format csv|ndjson] [--concurrency <n>] [--batch-size <n>]");
+        System.out.println("   Example: import --file fuel-log.csv --concurrency 16");
+        System.out.println();
+        System.out.println("5. shell");
+        System.out.println("   Run many commands in one session, read from stdin or a script file");
+        System.out.println("   The connection to the server stays open and each command prints its timing");
+        System.out.println("   Lines starting with # are ignored; exit or quit ends the session");
+        System.out.println("   Usage: shell [--script <file>]");
+        System.out.println("   Example: shell --script commands.txt");
+        System.out.println();
+        System.out.println("6. help");
         System.out.println("   Display this help message");
         System.out.println("   Usage: help");
         System.out.println();
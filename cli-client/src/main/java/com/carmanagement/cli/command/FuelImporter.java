@@ -0,0 +1,490 @@
+package com.carmanagement.cli.command;
+
+import com.carmanagement.cli.client.ApiClient;
+import com.carmanagement.cli.model.Car;
+import com.carmanagement.cli.model.FuelBatchItemResult;
+import com.carmanagement.cli.model.FuelBatchResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bulk importer for car and fuel entry files
+ * Streams a CSV (with header) or NDJSON file row by row. A row names its car
+ * either by carId or by brand, model and year, in which case the car is
+ * created on first sight, or reused if it already exists, so an import can
+ * be run again; rows with liters, price and odometer are uploaded through
+ * the batch endpoint
+ *
+ * Rows of one car are sent in file order, one batch after the other, so the
+ * odometer rule holds. Different cars upload in parallel with at most
+ * `concurrency` requests on the wire; a batch only takes a request slot once
+ * its car's previous batch has finished. Reading pauses while a few batches
+ * per slot are queued and partial batches are sent once too many rows are
+ * buffered, so memory use does not grow with the file
+ */
+public class FuelImporter {
+
+    public static final int MAX_BATCH_SIZE = 10000;
+    private static final int SAMPLE_ERRORS = 10;
+    private static final int MAX_PENDING_ROWS = 200_000;
+    private static final int QUEUED_BATCHES_PER_REQUEST = 4;
+
+    private final ApiClient apiClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int concurrency;
+    private final int batchSize;
+    private final RequestSlots requestSlots;
+    private final Semaphore queuedBatches;
+    private final int maxPendingRows;
+
+    private final Map<String, CarImport> cars = new HashMap<>();
+    private int pendingRows;
+
+    private final LongAdder rowsRead = new LongAdder();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder carsCreated = new LongAdder();
+    private final Map<String, LongAdder> errorCounts = new ConcurrentHashMap<>();
+    private final List<String> sampleErrors = new ArrayList<>();
+
+    /**
+     * @param apiClient Client used for uploads
+     * @param concurrency Maximum number of requests outstanding
+     * @param batchSize Maximum number of readings per batch request
+     */
+    public FuelImporter(ApiClient apiClient, int concurrency, int batchSize) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive, got: " + concurrency);
+        }
+        if (batchSize <= 0 || batchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                "Batch size must be between 1 and " + MAX_BATCH_SIZE + ", got: " + batchSize);
+        }
+        this.apiClient = apiClient;
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+        this.requestSlots = new RequestSlots(concurrency);
+        this.queuedBatches = new Semaphore(concurrency * QUEUED_BATCHES_PER_REQUEST);
+        this.maxPendingRows = Math.max(MAX_PENDING_ROWS, batchSize * concurrency);
+    }
+
+    /**
+     * Import a file and wait for all uploads to finish
+     *
+     * @param file File to import
+     * @param ndjson true for NDJSON, false for CSV
+     * @return Import counters
+     * @throws IOException if the file cannot be read
+     * @throws InterruptedException if interrupted while waiting for uploads
+     */
+    public ImportResult importFile(Path file, boolean ndjson) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (ndjson) {
+                readNdjson(reader);
+            } else {
+                readCsv(reader);
+            }
+        }
+
+        // Flush what is left and wait for every car's chain of batches
+        List<CompletableFuture<Void>> tails = new ArrayList<>(cars.size());
+        for (CarImport car : cars.values()) {
+            flush(car);
+            tails.add(car.tail);
+        }
+        CompletableFuture.allOf(tails.toArray(new CompletableFuture<?>[0])).join();
+
+        Map<String, Long> errors = new LinkedHashMap<>();
+        errorCounts.entrySet().stream()
+            .sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+            .forEach(entry -> errors.put(entry.getKey(), entry.getValue().sum()));
+
+        List<String> samples;
+        synchronized (sampleErrors) {
+            samples = new ArrayList<>(sampleErrors);
+        }
+        return new ImportResult(rowsRead.sum(), accepted.sum(), rejected.sum(), carsCreated.sum(),
+            System.nanoTime() - start, errors, samples);
+    }
+
+    private void readCsv(BufferedReader reader) throws IOException, InterruptedException {
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return;
+        }
+        List<String> header = parseCsvLine(headerLine);
+        long lineNumber = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            rowsRead.increment();
+            List<String> values = parseCsvLine(line);
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < header.size() && i < values.size(); i++) {
+                fields.put(header.get(i).trim(), values.get(i).trim());
+            }
+            addRow(lineNumber, fields);
+        }
+    }
+
+    private void readNdjson(BufferedReader reader) throws IOException, InterruptedException {
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            rowsRead.increment();
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (IOException e) {
+                reject(lineNumber, "Malformed JSON");
+                continue;
+            }
+            if (!node.isObject()) {
+                reject(lineNumber, "Expected a JSON object");
+                continue;
+            }
+            Map<String, String> fields = new HashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> iterator = node.fields();
+            while (iterator.hasNext()) {
+                Map.Entry<String, JsonNode> field = iterator.next();
+                if (!field.getValue().isNull()) {
+                    fields.put(field.getKey(), field.getValue().asText());
+                }
+            }
+            addRow(lineNumber, fields);
+        }
+    }
+
+    /**
+     * Split a CSV line, honouring double-quoted fields with "" escapes
+     */
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    /**
+     * Validate a row and queue it behind earlier rows of the same car
+     */
+    private void addRow(long line, Map<String, String> fields) throws InterruptedException {
+        String carKey;
+        Long carId = null;
+        String brand = null;
+        String model = null;
+        Integer year = null;
+        Map<String, Object> reading = null;
+
+        try {
+            if (!isBlank(fields.get("carId"))) {
+                carId = parseLong(fields, "carId");
+                carKey = "#" + carId;
+            } else {
+                brand = fields.get("brand");
+                model = fields.get("model");
+                if (isBlank(brand) || isBlank(model) || isBlank(fields.get("year"))) {
+                    throw new IllegalArgumentException("Either carId or brand, model and year is required");
+                }
+                year = (int) parseLong(fields, "year");
+                carKey = brand.toLowerCase(Locale.ROOT) + '\u0000' + model.toLowerCase(Locale.ROOT) + '\u0000' + year;
+            }
+
+            boolean hasLiters = !isBlank(fields.get("liters"));
+            boolean hasPrice = !isBlank(fields.get("price"));
+            boolean hasOdometer = !isBlank(fields.get("odometer"));
+            if (hasLiters || hasPrice || hasOdometer) {
+                if (!(hasLiters && hasPrice && hasOdometer)) {
+                    throw new IllegalArgumentException("A fuel reading needs liters, price and odometer");
+                }
+                reading = new HashMap<>();
+                reading.put("liters", parseDouble(fields, "liters"));
+                reading.put("price", parseDouble(fields, "price"));
+                reading.put("odometer", (int) parseLong(fields, "odometer"));
+            }
+        } catch (IllegalArgumentException e) {
+            reject(line, e.getMessage());
+            return;
+        }
+
+        CarImport car = cars.get(carKey);
+        if (car == null) {
+            car = carId != null ? new CarImport(CompletableFuture.completedFuture(carId)) : createCar(brand, model, year);
+            cars.put(carKey, car);
+        }
+        if (reading == null) {
+            return;
+        }
+
+        car.lines.add(line);
+        car.readings.add(reading);
+        pendingRows++;
+        if (car.readings.size() >= batchSize) {
+            flush(car);
+        }
+        // Bound memory when many cars are filling batches at once
+        if (pendingRows >= maxPendingRows) {
+            for (CarImport pending : cars.values()) {
+                flush(pending);
+            }
+        }
+    }
+
+    /**
+     * Create a car, or reuse the existing car with the same brand, model and year
+     * A failed create is followed by a lookup, so the common first import
+     * costs one request per car
+     */
+    private CarImport createCar(String brand, String model, int year) {
+        CompletableFuture<Long> id = send(() -> apiClient.createCarAsync(brand, model, year))
+            .thenApply(created -> {
+                carsCreated.increment();
+                return created.getId();
+            })
+            .exceptionallyCompose(error -> send(() -> apiClient.findCarAsync(brand, model, year))
+                .thenCompose(existing -> existing != null
+                    ? CompletableFuture.completedFuture(existing.getId())
+                    : CompletableFuture.<Long>failedFuture(error)));
+        return new CarImport(id);
+    }
+
+    /**
+     * Send a request once a request slot is free, releasing the slot when it completes
+     */
+    private <T> CompletableFuture<T> send(Supplier<CompletableFuture<T>> request) {
+        return requestSlots.acquire()
+            .thenCompose(ignored -> request.get())
+            .whenComplete((result, error) -> requestSlots.release());
+    }
+
+    /**
+     * Send a car's buffered readings once its previous batch has finished
+     */
+    private void flush(CarImport car) throws InterruptedException {
+        if (car.readings.isEmpty()) {
+            return;
+        }
+        List<Long> lines = car.lines;
+        List<Map<String, Object>> readings = car.readings;
+        car.lines = new ArrayList<>();
+        car.readings = new ArrayList<>();
+        pendingRows -= readings.size();
+
+        queuedBatches.acquire();
+        car.tail = car.tail
+            .thenCompose(previous -> car.id)
+            .thenCompose(id -> send(() -> apiClient.addFuelEntriesAsync(id, readings)))
+            .handle((result, error) -> {
+                queuedBatches.release();
+                record(lines, result, error);
+                return null;
+            });
+    }
+
+    private void record(List<Long> lines, FuelBatchResult result, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+            String message = cause.getMessage() != null ? cause.getMessage() : cause.toString();
+            for (Long line : lines) {
+                reject(line, message);
+            }
+            return;
+        }
+        accepted.add(result.getAccepted());
+        for (FuelBatchItemResult item : result.getItems()) {
+            if (!item.isSuccess()) {
+                reject(lines.get(item.getIndex()), item.getError());
+            }
+        }
+    }
+
+    private void reject(long line, String message) {
+        rejected.increment();
+        errorCounts.computeIfAbsent(message, key -> new LongAdder()).increment();
+        synchronized (sampleErrors) {
+            if (sampleErrors.size() < SAMPLE_ERRORS) {
+                sampleErrors.add("line " + line + ": " + message);
+            }
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static long parseLong(Map<String, String> fields, String name) {
+        try {
+            return Long.parseLong(fields.get(name));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": '" + fields.get(name) + "'");
+        }
+    }
+
+    private static double parseDouble(Map<String, String> fields, String name) {
+        try {
+            return Double.parseDouble(fields.get(name));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": '" + fields.get(name) + "'");
+        }
+    }
+
+    /**
+     * Request slots handed out as futures, so a batch waiting for a slot
+     * holds no thread and a batch waiting for its car holds no slot
+     */
+    private static final class RequestSlots {
+        private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+        private int available;
+
+        RequestSlots(int slots) {
+            this.available = slots;
+        }
+
+        synchronized CompletableFuture<Void> acquire() {
+            if (available > 0) {
+                available--;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            return waiter;
+        }
+
+        void release() {
+            CompletableFuture<Void> next;
+            synchronized (this) {
+                next = waiters.poll();
+                if (next == null) {
+                    available++;
+                    return;
+                }
+            }
+            // Hand the slot straight to the next waiter
+            next.complete(null);
+        }
+    }
+
+    /**
+     * Upload state of one car: its ID once known, the batch being filled and
+     * the completion of the last batch sent
+     */
+    private static final class CarImport {
+        private final CompletableFuture<Long> id;
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+        private List<Long> lines = new ArrayList<>();
+        private List<Map<String, Object>> readings = new ArrayList<>();
+
+        CarImport(CompletableFuture<Long> id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * Counters of a finished import
+     */
+    public static final class ImportResult {
+        private final long rows;
+        private final long accepted;
+        private final long rejected;
+        private final long carsCreated;
+        private final long elapsedNanos;
+        private final Map<String, Long> errorCounts;
+        private final List<String> sampleErrors;
+
+        ImportResult(long rows, long accepted, long rejected, long carsCreated, long elapsedNanos,
+                     Map<String, Long> errorCounts, List<String> sampleErrors) {
+            this.rows = rows;
+            this.accepted = accepted;
+            this.rejected = rejected;
+            this.carsCreated = carsCreated;
+            this.elapsedNanos = elapsedNanos;
+            this.errorCounts = errorCounts;
+            this.sampleErrors = sampleErrors;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getAccepted() {
+            return accepted;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public long getCarsCreated() {
+            return carsCreated;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Rejected rows per error message, most frequent first
+         */
+        public Map<String, Long> getErrorCounts() {
+            return errorCounts;
+        }
+
+        /**
+         * The first few rejected rows with their line numbers
+         */
+        public List<String> getSampleErrors() {
+            return sampleErrors;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.carmanagement.cli.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * CLI Model for one item of a fuel batch result
+ * Matches API FuelBatchItemResult DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class FuelBatchItemResult {
+    private int index;
+    private boolean success;
+    private FuelEntry entry;
+    private String error;
+}
@@ -0,0 +1,22 @@
+package com.carmanagement.cli.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * CLI Model for a fuel batch result
+ * Matches API FuelBatchResult DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class FuelBatchResult {
+    private int accepted;
+    private int rejected;
+    private List<FuelBatchItemResult> items;
+}
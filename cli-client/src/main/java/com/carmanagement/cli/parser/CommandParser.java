@@ -84,6 +84,11 @@ public class CommandParser {
                 requireParameters(command, "carId");
                 break;
             
+            case "import":
+                requireParameters(command, "file");
+                break;
+            
+            case "shell":
             case "help":
                 // No parameters required
                 break;
@@ -91,7 +96,7 @@ public class CommandParser {
             default:
                 throw new InvalidCommandException(
                     "Unknown command: " + command.getName() + 
-                    ". Available commands: create-car, add-fuel, fuel-stats, help"
+                    ". Available commands: create-car, add-fuel, fuel-stats, import, shell, help"
                 );
         }
     }
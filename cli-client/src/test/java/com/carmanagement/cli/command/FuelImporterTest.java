@@ -0,0 +1,109 @@
+package com.carmanagement.cli.command;
+
+import com.carmanagement.cli.client.ApiClient;
+import com.carmanagement.cli.model.Car;
+import com.carmanagement.cli.model.FuelBatchResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FuelImporterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void boundsRequestsOnTheWire() throws Exception {
+        List<String> lines = new ArrayList<>();
+        lines.add("carId,liters,price,odometer");
+        for (int car = 1; car <= 20; car++) {
+            for (int i = 1; i <= 10; i++) {
+                lines.add(car + ",40,60," + (1000 * i));
+            }
+        }
+        Path file = Files.write(directory.resolve("fuel.csv"), lines);
+
+        FakeApiClient client = new FakeApiClient();
+        FuelImporter.ImportResult result = new FuelImporter(client, 3, 2).importFile(file, false);
+
+        assertEquals(200, result.getAccepted());
+        assertEquals(0, result.getRejected());
+        // Every slot is used, and never more than the configured concurrency
+        assertEquals(3, client.maxConcurrent.get());
+    }
+
+    @Test
+    void reusesExistingCarsOnReimport() throws Exception {
+        Path file = Files.write(directory.resolve("fuel.ndjson"), List.of(
+            "{\"brand\":\"Toyota\",\"model\":\"Corolla\",\"year\":2020,\"liters\":40,\"price\":60,\"odometer\":1000}",
+            "{\"brand\":\"toyota\",\"model\":\"corolla\",\"year\":2020,\"liters\":40,\"price\":60,\"odometer\":2000}"));
+
+        FakeApiClient client = new FakeApiClient();
+        FuelImporter.ImportResult first = new FuelImporter(client, 2, 10).importFile(file, true);
+        assertEquals(1, first.getCarsCreated());
+        assertEquals(2, first.getAccepted());
+
+        FuelImporter.ImportResult second = new FuelImporter(client, 2, 10).importFile(file, true);
+        assertEquals(0, second.getCarsCreated());
+        assertEquals(2, second.getAccepted());
+        assertEquals(1, client.cars.size());
+    }
+
+    /**
+     * Answers after a short delay on another thread and records peak concurrency
+     */
+    private static final class FakeApiClient extends ApiClient {
+        private final Map<String, Car> cars = new ConcurrentHashMap<>();
+        private final AtomicLong ids = new AtomicLong();
+        private final AtomicInteger concurrent = new AtomicInteger();
+        private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+        FakeApiClient() {
+            super(HttpClient.Version.HTTP_1_1, 64);
+        }
+
+        @Override
+        public CompletableFuture<Car> createCarAsync(String brand, String model, int year) {
+            return respond(() -> {
+                String key = (brand + '/' + model + '/' + year).toLowerCase();
+                Car car = new Car(ids.incrementAndGet(), brand, model, year, null);
+                if (cars.putIfAbsent(key, car) != null) {
+                    throw new IllegalArgumentException("Car already exists");
+                }
+                return car;
+            });
+        }
+
+        @Override
+        public CompletableFuture<Car> findCarAsync(String brand, String model, int year) {
+            return respond(() -> cars.get((brand + '/' + model + '/' + year).toLowerCase()));
+        }
+
+        @Override
+        public CompletableFuture<FuelBatchResult> addFuelEntriesAsync(Long carId, List<Map<String, Object>> entries) {
+            return respond(() -> new FuelBatchResult(entries.size(), 0, List.of()));
+        }
+
+        private <T> CompletableFuture<T> respond(Supplier<T> answer) {
+            int now = concurrent.incrementAndGet();
+            maxConcurrent.accumulateAndGet(now, Math::max);
+            return CompletableFuture.supplyAsync(answer,
+                    CompletableFuture.delayedExecutor(5, TimeUnit.MILLISECONDS))
+                .whenComplete((result, error) -> concurrent.decrementAndGet());
+        }
+    }
+}